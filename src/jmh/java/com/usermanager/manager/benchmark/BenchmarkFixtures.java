@@ -0,0 +1,57 @@
+package com.usermanager.manager.benchmark;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.List;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.usermanager.manager.infra.security.token.TokenKeyRing;
+import com.usermanager.manager.infra.security.token.TokenService;
+import com.usermanager.manager.model.user.User;
+import com.usermanager.manager.model.user.UserRole;
+
+final class BenchmarkFixtures {
+    static final String SECRET = "benchmark-secret-with-at-least-32-characters";
+
+    private BenchmarkFixtures() {
+    }
+
+    static User user() {
+        return User.builder()
+                .id(42L)
+                .name("Benchmark User")
+                .login("benchmark@example.com")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z5mM6Ewk1JwXKp4ZvZ2dNm9K")
+                .role(UserRole.USER)
+                .isEnabled(true)
+                .build();
+    }
+
+    static TokenService tokenService(String algorithm) {
+        String privateKey = "";
+        String publicKey = "";
+        if (TokenKeyRing.ES256.equals(algorithm)) {
+            KeyPair pair = ecKeyPair();
+            privateKey = Base64.getEncoder().encodeToString(pair.getPrivate().getEncoded());
+            publicKey = Base64.getEncoder().encodeToString(pair.getPublic().getEncoded());
+        }
+        TokenKeyRing keyRing = new TokenKeyRing(algorithm, SECRET, List.of(), privateKey, publicKey, List.of(), 2);
+        TokenService tokenService = new TokenService(keyRing);
+        ReflectionTestUtils.setField(tokenService, "accessExpirationMinutes", 15L);
+        return tokenService;
+    }
+
+    private static KeyPair ecKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
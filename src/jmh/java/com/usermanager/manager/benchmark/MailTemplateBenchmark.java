@@ -0,0 +1,49 @@
+package com.usermanager.manager.benchmark;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.usermanager.manager.infra.mail.template.MailTemplateEngine;
+import com.usermanager.manager.infra.mail.template.RenderedMail;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MailTemplateBenchmark {
+
+    @Param({"en", "pt-BR"})
+    private String locale;
+
+    private MailTemplateEngine engine;
+    private Locale requestLocale;
+    private Map<String, String> values;
+
+    @Setup
+    public void setUp() {
+        engine = new MailTemplateEngine("classpath*:mail/templates/*.html");
+        requestLocale = Locale.forLanguageTag(locale);
+        values = Map.of("link", "http://localhost:8080/api/auth/register/confirm?token=" + UUID.randomUUID());
+    }
+
+    @Benchmark
+    public RenderedMail render() {
+        return engine.render("verification", requestLocale, values);
+    }
+}
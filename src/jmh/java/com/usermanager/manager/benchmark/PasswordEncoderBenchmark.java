@@ -0,0 +1,69 @@
+package com.usermanager.manager.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.usermanager.manager.infra.config.SecurityConfigurations;
+import com.usermanager.manager.infra.security.password.PasswordEncoderCalibrator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// password hashing is deliberately slow, so this one reports time per operation rather than throughput
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+    private static final String PASSWORD = "benchmark-password-1";
+
+    @Param({"bcrypt", "argon2"})
+    private String algorithm;
+
+    private ThreadPoolExecutor executor;
+    private PasswordEncoder passwordEncoder;
+    private String encoded;
+
+    @Setup
+    public void setUp() {
+        SecurityConfigurations configurations = new SecurityConfigurations(null);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        executor = configurations.passwordHashingExecutor(0, meterRegistry);
+        // fixed default costs, so results stay comparable between machines and releases
+        var calibrator = new PasswordEncoderCalibrator(algorithm, false, Duration.ZERO, 10, 2);
+        passwordEncoder = configurations.passwordEncoder(calibrator, executor, 0, 200, 1, meterRegistry);
+        encoded = passwordEncoder.encode(PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public String encode() {
+        return passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches(PASSWORD, encoded);
+    }
+}
@@ -0,0 +1,53 @@
+package com.usermanager.manager.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.usermanager.manager.infra.security.token.OpaqueTokenGenerator;
+import com.usermanager.manager.infra.security.token.TokenDigest;
+import com.usermanager.manager.infra.security.token.TokenKeyRing;
+import com.usermanager.manager.infra.security.token.TokenService;
+import com.usermanager.manager.model.user.User;
+
+// what a login or a refresh pays to mint the refresh token and the digest that gets stored
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class RefreshTokenBenchmark {
+
+    private TokenService tokenService;
+    private OpaqueTokenGenerator opaqueTokenGenerator;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        tokenService = BenchmarkFixtures.tokenService(TokenKeyRing.HS256);
+        opaqueTokenGenerator = new OpaqueTokenGenerator();
+        user = BenchmarkFixtures.user();
+    }
+
+    @Benchmark
+    public String signedJwt() {
+        return TokenDigest.sha256Hex(tokenService.generateToken(user, 10080));
+    }
+
+    @Benchmark
+    public String opaque() {
+        return TokenDigest.sha256Hex(opaqueTokenGenerator.generate());
+    }
+}
@@ -0,0 +1,85 @@
+package com.usermanager.manager.benchmark;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.usermanager.manager.infra.security.cache.AuthenticationCache;
+import com.usermanager.manager.infra.security.cache.UserPrincipalCache;
+import com.usermanager.manager.infra.security.filter.SecurityFilter;
+import com.usermanager.manager.infra.security.token.TokenService;
+import com.usermanager.manager.model.security.TokenRevocationChecker;
+import com.usermanager.manager.model.user.User;
+import com.usermanager.manager.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityFilterBenchmark {
+
+    @Param({"true", "false"})
+    private boolean stateless;
+
+    @Param({"true", "false"})
+    private boolean cacheEnabled;
+
+    private SecurityFilter securityFilter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        TokenService tokenService = BenchmarkFixtures.tokenService("HS256");
+        User user = BenchmarkFixtures.user();
+
+        // the mock stands in for the database lookup made when the filter is not stateless
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByLogin(user.getLogin())).thenReturn(Optional.of(user));
+
+        securityFilter = new SecurityFilter(tokenService, userRepository,
+                new StaticListableBeanFactory().getBeanProvider(TokenRevocationChecker.class),
+                new AuthenticationCache(cacheEnabled, 10_000, new SimpleMeterRegistry()),
+                new UserPrincipalCache(cacheEnabled, 10_000, Duration.ofMinutes(5), new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(securityFilter, "stateless", stateless);
+
+        authorization = "Bearer " + tokenService.generateToken(user);
+    }
+
+    @Benchmark
+    public int doFilterInternal() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        securityFilter.doFilter(request, response, new MockFilterChain());
+        SecurityContextHolder.clearContext();
+        return response.getStatus();
+    }
+}
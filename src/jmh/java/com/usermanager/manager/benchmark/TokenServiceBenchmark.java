@@ -0,0 +1,57 @@
+package com.usermanager.manager.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.usermanager.manager.infra.security.token.TokenService;
+import com.usermanager.manager.model.security.AccessTokenClaims;
+import com.usermanager.manager.model.user.User;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    @Param({"HS256", "ES256"})
+    private String algorithm;
+
+    private TokenService tokenService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenService = BenchmarkFixtures.tokenService(algorithm);
+        user = BenchmarkFixtures.user();
+        token = tokenService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenService.generateToken(user);
+    }
+
+    @Benchmark
+    public String validateToken() {
+        return tokenService.validateToken(token);
+    }
+
+    @Benchmark
+    public AccessTokenClaims validateAccessToken() {
+        return tokenService.validateAccessToken(token);
+    }
+}
@@ -0,0 +1,62 @@
+package com.usermanager.manager.benchmark;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+
+import com.usermanager.manager.dto.user.UserDTO;
+import com.usermanager.manager.dto.user.UserResponseDTO;
+import com.usermanager.manager.mappers.UserMapper;
+import com.usermanager.manager.mappers.UserMapperImpl;
+import com.usermanager.manager.model.user.User;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserBenchmark {
+
+    private UserMapper userMapper;
+    private User user;
+    private UserDTO userDTO;
+
+    @Setup
+    public void setUp() {
+        userMapper = new UserMapperImpl();
+        user = BenchmarkFixtures.user();
+        userDTO = userMapper.userToUserDTO(user);
+    }
+
+    @Benchmark
+    public UserDTO userToUserDTO() {
+        return userMapper.userToUserDTO(user);
+    }
+
+    @Benchmark
+    public User userDTOToUser() {
+        return userMapper.userDTOToUser(userDTO);
+    }
+
+    @Benchmark
+    public UserResponseDTO userToUserResponseDTO() {
+        return userMapper.userToUserResponseDTO(user);
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return user.getAuthorities();
+    }
+}
@@ -0,0 +1,59 @@
+package com.usermanager.manager.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.usermanager.manager.dto.admin.MailCampaignDTO;
+import com.usermanager.manager.dto.admin.RotateSigningKeyDTO;
+import com.usermanager.manager.dto.admin.StartCampaignDTO;
+import com.usermanager.manager.dto.common.ResponseMessage;
+import com.usermanager.manager.infra.security.token.SigningKeyStore;
+import com.usermanager.manager.model.user.User;
+import com.usermanager.manager.service.campaign.MailCampaignService;
+
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/admin")
+@Slf4j
+public class AdminController {
+
+    private final SigningKeyStore signingKeyStore;
+    private final MailCampaignService campaignService;
+
+    public AdminController(SigningKeyStore signingKeyStore, MailCampaignService campaignService) {
+        this.signingKeyStore = signingKeyStore;
+        this.campaignService = campaignService;
+    }
+
+    @PostMapping("/token-keys/rotate")
+    public ResponseEntity<ResponseMessage> rotateSigningKey(@RequestBody @Valid RotateSigningKeyDTO data) {
+        String kid = signingKeyStore.rotate(data.secret());
+        return ResponseEntity.ok(new ResponseMessage("Signing key rotated. Active key id: " + kid));
+    }
+
+    // the campaign runs in the background, its progress is read back with GET
+    @PostMapping("/campaigns")
+    public ResponseEntity<MailCampaignDTO> startCampaign(@AuthenticationPrincipal User user,
+            @RequestBody @Valid StartCampaignDTO data) {
+        return ResponseEntity.accepted().body(campaignService.start(data, user.getLogin()));
+    }
+
+    @GetMapping("/campaigns/{id}")
+    public ResponseEntity<MailCampaignDTO> getCampaign(@PathVariable Long id) {
+        return ResponseEntity.ok(campaignService.find(id));
+    }
+
+    @DeleteMapping("/campaigns/{id}")
+    public ResponseEntity<MailCampaignDTO> cancelCampaign(@PathVariable Long id) {
+        return ResponseEntity.ok(campaignService.cancel(id));
+    }
+}
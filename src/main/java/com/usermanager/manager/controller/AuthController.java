@@ -1,13 +1,16 @@
 package com.usermanager.manager.controller;
 
+import java.time.Duration;
 import java.util.UUID;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CookieValue;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -16,14 +19,19 @@ import org.springframework.web.util.UriComponentsBuilder;
 import com.usermanager.manager.dto.authentication.ActivateUserDTO;
 import com.usermanager.manager.dto.authentication.AuthenticationDTO;
 import com.usermanager.manager.dto.authentication.CreateUserDTO;
+import com.usermanager.manager.dto.authentication.JwksDTO;
 import com.usermanager.manager.dto.authentication.LoginResponseDTO;
 import com.usermanager.manager.dto.authentication.PasswordResetDTO;
+import com.usermanager.manager.dto.authentication.TokenIntrospectionRequestDTO;
+import com.usermanager.manager.dto.authentication.TokenIntrospectionResponseDTO;
 import com.usermanager.manager.dto.authentication.TokensDTO;
 import com.usermanager.manager.dto.authentication.UserCreatedDTO;
 import com.usermanager.manager.dto.authentication.UserEmailDTO;
 import com.usermanager.manager.dto.common.ResponseMessage;
 import com.usermanager.manager.exception.authentication.TokenInvalidException;
+import com.usermanager.manager.model.security.TokenProvider;
 import com.usermanager.manager.service.auth.AuthService;
+import com.usermanager.manager.service.auth.TokenIntrospectionService;
 import com.usermanager.manager.service.auth.VerificationTokenService;
 import com.usermanager.manager.service.user.UserService;
 
@@ -38,16 +46,22 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class AuthController {
     private static final int COOKIE_MAX_AGE = 7 * 24 * 60 * 60; // 7 days in seconds
+    private static final Duration JWKS_MAX_AGE = Duration.ofMinutes(5);
 
     private final AuthService authService;
     private final UserService userService;
     private final VerificationTokenService verificationService;
+    private final TokenProvider tokenProvider;
+    private final TokenIntrospectionService introspectionService;
 
     public AuthController(AuthService authService, UserService userService,
-            VerificationTokenService verificationService) {
+            VerificationTokenService verificationService, TokenProvider tokenProvider,
+            TokenIntrospectionService introspectionService) {
         this.authService = authService;
         this.userService = userService;
         this.verificationService = verificationService;
+        this.tokenProvider = tokenProvider;
+        this.introspectionService = introspectionService;
     }
 
     @PostMapping("register")
@@ -108,6 +122,25 @@ public class AuthController {
         return ResponseEntity.ok().body(new LoginResponseDTO(newTokens.accessToken()));
     }
 
+    @PostMapping("token/introspect")
+    public ResponseEntity<TokenIntrospectionResponseDTO> introspect(
+            @RequestBody @Valid TokenIntrospectionRequestDTO data) {
+        return ResponseEntity.ok(new TokenIntrospectionResponseDTO(introspectionService.introspect(data.tokens())));
+    }
+
+    @PostMapping("logout")
+    public ResponseEntity<ResponseMessage> logout(
+            @RequestHeader(name = "Authorization", required = false) String authorization,
+            @CookieValue(name = "refreshToken", defaultValue = "") String refreshToken, HttpServletResponse response) {
+        String accessToken = authorization == null ? null : authorization.replace("Bearer ", "");
+        authService.logout(accessToken, refreshToken);
+
+        Cookie cookie = createCookie("refreshToken", "");
+        cookie.setMaxAge(0);
+        response.addCookie(cookie);
+        return ResponseEntity.ok(new ResponseMessage("Logged out."));
+    }
+
     @PostMapping("activate")
     public ResponseEntity<ResponseMessage> activateUser(@RequestBody @Valid ActivateUserDTO data) {
         boolean activationSent = authService.sendActivationCode(data.email());
@@ -118,6 +151,13 @@ public class AuthController {
         return ResponseEntity.ok(new ResponseMessage("Activation link sent to " + data.email() + " successfully."));
     }
 
+    @GetMapping(".well-known/jwks.json")
+    public ResponseEntity<JwksDTO> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(JWKS_MAX_AGE).cachePublic())
+                .body(new JwksDTO(tokenProvider.getPublicJwks()));
+    }
+
     private Cookie createCookie(String name, String value) {
         Cookie cookie = new Cookie(name, value);
         cookie.setHttpOnly(true);
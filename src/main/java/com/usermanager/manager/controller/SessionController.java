@@ -0,0 +1,47 @@
+package com.usermanager.manager.controller;
+
+import java.util.UUID;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.usermanager.manager.dto.common.ResponseMessage;
+import com.usermanager.manager.dto.user.SessionPageDTO;
+import com.usermanager.manager.model.user.User;
+import com.usermanager.manager.service.auth.RefreshTokenService;
+
+@RestController
+@RequestMapping("/api/users/sessions")
+public class SessionController {
+
+    private final RefreshTokenService refreshTokenService;
+
+    public SessionController(RefreshTokenService refreshTokenService) {
+        this.refreshTokenService = refreshTokenService;
+    }
+
+    @GetMapping
+    public ResponseEntity<SessionPageDTO> listSessions(@AuthenticationPrincipal User user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(refreshTokenService.listSessions(user.getId(), cursor, limit));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ResponseMessage> revokeSession(@AuthenticationPrincipal User user, @PathVariable UUID id) {
+        refreshTokenService.revokeSession(user.getId(), id);
+        return ResponseEntity.ok(new ResponseMessage("Session revoked."));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<ResponseMessage> revokeAllSessions(@AuthenticationPrincipal User user) {
+        int revoked = refreshTokenService.revokeAllSessions(user.getId());
+        return ResponseEntity.ok(new ResponseMessage(revoked + " sessions revoked."));
+    }
+}
@@ -0,0 +1,20 @@
+package com.usermanager.manager.dto.admin;
+
+import java.time.LocalDateTime;
+
+import com.usermanager.manager.model.email.enums.CampaignStatus;
+import com.usermanager.manager.model.email.enums.CampaignType;
+
+public record MailCampaignDTO(
+    Long id,
+    CampaignType type,
+    CampaignStatus status,
+    String locale,
+    long enqueued,
+    long lastUserId,
+    String lastError,
+    String createdBy,
+    LocalDateTime createdAt,
+    LocalDateTime finishedAt) {
+
+}
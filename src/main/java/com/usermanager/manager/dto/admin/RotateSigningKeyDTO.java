@@ -0,0 +1,10 @@
+package com.usermanager.manager.dto.admin;
+
+import jakarta.validation.constraints.Size;
+
+// the secret is only used with HS256; ES256 generates a new key pair on rotation
+public record RotateSigningKeyDTO(
+    @Size(min = 32, message = "Secret must have at least 32 characters")
+    String secret) {
+
+}
@@ -0,0 +1,15 @@
+package com.usermanager.manager.dto.admin;
+
+import com.usermanager.manager.model.email.enums.CampaignType;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+// locale is a language tag such as pt-BR; without it the mails use the default templates
+public record StartCampaignDTO(
+    @NotNull(message = "Campaign type is required")
+    CampaignType type,
+    @Pattern(regexp = "[A-Za-z]{2,8}([-_][A-Za-z0-9]{1,8})*", message = "Locale must be a language tag")
+    String locale) {
+
+}
@@ -0,0 +1,8 @@
+package com.usermanager.manager.dto.authentication;
+
+import java.util.List;
+import java.util.Map;
+
+public record JwksDTO(List<Map<String, String>> keys) {
+
+}
@@ -0,0 +1,12 @@
+package com.usermanager.manager.dto.authentication;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// RFC 7662 style: an inactive token only reports active=false, exp is in epoch seconds
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TokenIntrospectionDTO(boolean active, String sub, Long uid, String role, Long exp) {
+
+    public static TokenIntrospectionDTO inactive() {
+        return new TokenIntrospectionDTO(false, null, null, null, null);
+    }
+}
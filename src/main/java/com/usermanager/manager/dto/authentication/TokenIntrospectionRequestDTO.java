@@ -0,0 +1,9 @@
+package com.usermanager.manager.dto.authentication;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotNull;
+
+public record TokenIntrospectionRequestDTO(@NotNull List<String> tokens) {
+
+}
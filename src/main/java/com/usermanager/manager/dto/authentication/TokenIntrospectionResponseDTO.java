@@ -0,0 +1,8 @@
+package com.usermanager.manager.dto.authentication;
+
+import java.util.List;
+
+// results are in the same order as the requested tokens
+public record TokenIntrospectionResponseDTO(List<TokenIntrospectionDTO> results) {
+
+}
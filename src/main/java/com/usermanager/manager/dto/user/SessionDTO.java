@@ -0,0 +1,7 @@
+package com.usermanager.manager.dto.user;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record SessionDTO(UUID id, LocalDateTime refreshedAt, LocalDateTime expiresAt) {
+}
@@ -0,0 +1,6 @@
+package com.usermanager.manager.dto.user;
+
+import java.util.List;
+
+public record SessionPageDTO(List<SessionDTO> sessions, String nextCursor) {
+}
@@ -0,0 +1,7 @@
+package com.usermanager.manager.exception.authentication;
+
+public class IntrospectionBatchTooLargeException extends RuntimeException {
+    public IntrospectionBatchTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.usermanager.manager.exception.authentication;
+
+public class InvalidSessionCursorException extends RuntimeException {
+    public InvalidSessionCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.usermanager.manager.exception.authentication;
+
+public class PasswordHashingUnavailableException extends RuntimeException{
+    private final long retryAfterSeconds;
+
+    public PasswordHashingUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
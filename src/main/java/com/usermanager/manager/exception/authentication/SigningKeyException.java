@@ -0,0 +1,7 @@
+package com.usermanager.manager.exception.authentication;
+
+public class SigningKeyException extends RuntimeException{
+    public SigningKeyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.usermanager.manager.exception.mail;
+
+public class CampaignAlreadyRunningException extends RuntimeException {
+    public CampaignAlreadyRunningException(String message) {
+        super(message);
+    }
+}
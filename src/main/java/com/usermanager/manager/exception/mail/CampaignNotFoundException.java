@@ -0,0 +1,7 @@
+package com.usermanager.manager.exception.mail;
+
+public class CampaignNotFoundException extends RuntimeException {
+    public CampaignNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -1,12 +1,20 @@
 package com.usermanager.manager.infra.config;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 
 @Configuration
 public class MailConfigurations {
@@ -23,8 +31,13 @@ public class MailConfigurations {
     @Value("${spring.mail.port: 587}")
     private int port;
 
+    // connections are kept open by SmtpConnectionPool, a stalled server must not hold one forever
+    @Value("${api.mail.smtp.timeout:10s}")
+    private Duration timeout;
+
+    // SmtpConnectionPool reads the session and credentials from here
     @Bean
-    public JavaMailSender getJavaMailSender() {
+    public JavaMailSenderImpl getJavaMailSender() {
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
         mailSender.setHost(host);
         mailSender.setPort(port);
@@ -36,7 +49,26 @@ public class MailConfigurations {
         props.put("mail.transport.protocol", "smtp");
         props.put("mail.smtp.auth", "true");
         props.put("mail.smtp.starttls.enable", "true");
+        props.put("mail.smtp.connectiontimeout", String.valueOf(timeout.toMillis()));
+        props.put("mail.smtp.timeout", String.valueOf(timeout.toMillis()));
+        props.put("mail.smtp.writetimeout", String.valueOf(timeout.toMillis()));
         props.put("mail.debug", "true");
         return mailSender;
     }
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor mailExecutor(
+            @Value("${api.mail.executor.concurrency:4}") int concurrency,
+            @Value("${api.mail.executor.queue-capacity:100}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        // platform threads: SMTPTransport blocks on socket I/O inside synchronized methods, which pins a
+        // virtual thread to its carrier on JDK 21, and a pool of a few threads gains nothing from them anyway.
+        // the fixed pool caps how many run at once and the bounded queue rejects the overflow, the outbox
+        // keeps the rejected mails
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("mail-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "mail", List.of()).bindTo(meterRegistry);
+        return executor;
+    }
 }
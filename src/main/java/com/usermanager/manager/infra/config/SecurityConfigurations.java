@@ -1,21 +1,32 @@
 package com.usermanager.manager.infra.config;
 
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import com.usermanager.manager.infra.security.filter.SecurityFilter;
+import com.usermanager.manager.infra.security.password.BoundedPasswordEncoder;
+import com.usermanager.manager.infra.security.password.PasswordEncoderCalibrator;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import jakarta.servlet.http.HttpServletResponse;
 
 @Configuration
@@ -38,9 +49,12 @@ public class SecurityConfigurations {
                 .frameOptions(frame -> frame.sameOrigin())
             )
             .authorizeHttpRequests(requests -> requests
+                // introspection tells whether any token is live, only the gateway's own admin credential may ask
+                .requestMatchers(HttpMethod.POST, "/api/auth/token/introspect").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.POST, "/api/auth/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/auth/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/users").hasRole("ADMIN")
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .requestMatchers("/actuator/**").permitAll()
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                 .anyRequest().authenticated() // Exige autenticação para qualquer outra coisa
@@ -61,8 +75,52 @@ public class SecurityConfigurations {
         return configuration.getAuthenticationManager();
     }
 
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor passwordHashingExecutor(
+            @Value("${api.security.password.hashing.threads:0}") int threads,
+            MeterRegistry meterRegistry) {
+        // hashing is CPU bound, so more threads than cores only adds contention; the queue needs no bound
+        // of its own, BoundedPasswordEncoder admits at most max-concurrent tasks
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "password.hashing", List.of()).bindTo(meterRegistry);
+        return executor;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor tokenVerificationExecutor(
+            @Value("${api.security.token.introspection.threads:0}") int threads,
+            @Value("${api.security.token.introspection.queue-capacity:1000}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        // signature checks are CPU bound as well; when the queue is full the request thread verifies
+        // its own chunk, which slows that caller down instead of failing it
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("token-verification-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        new ExecutorServiceMetrics(executor, "token.verification", List.of()).bindTo(meterRegistry);
+        return executor;
+    }
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordEncoderCalibrator calibrator,
+            ThreadPoolExecutor passwordHashingExecutor,
+            @Value("${api.security.password.hashing.max-concurrent:0}") int maxConcurrent,
+            @Value("${server.tomcat.threads.max:200}") int requestThreads,
+            @Value("${api.security.password.hashing.retry-after:1}") long retryAfterSeconds,
+            MeterRegistry meterRegistry) {
+        if (maxConcurrent >= requestThreads) {
+            throw new IllegalStateException("api.security.password.hashing.max-concurrent (" + maxConcurrent
+                    + ") must be lower than server.tomcat.threads.max (" + requestThreads + ")");
+        }
+        // by default a quarter of the request threads may wait on hashes, never fewer than the hashing threads
+        // and always leaving at least one request thread free, however many cores the host has
+        int limit = maxConcurrent > 0 ? maxConcurrent
+                : Math.max(1, Math.min(requestThreads - 1,
+                        Math.max(passwordHashingExecutor.getCorePoolSize(), requestThreads / 4)));
+        return new BoundedPasswordEncoder(calibrator.createEncoder(), passwordHashingExecutor, limit,
+                retryAfterSeconds, meterRegistry);
     }
 }
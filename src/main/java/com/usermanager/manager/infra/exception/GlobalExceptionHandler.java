@@ -1,6 +1,7 @@
 package com.usermanager.manager.infra.exception;
 
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -8,10 +9,16 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import com.usermanager.manager.dto.common.ResponseMessage;
+import com.usermanager.manager.exception.authentication.IntrospectionBatchTooLargeException;
+import com.usermanager.manager.exception.authentication.InvalidSessionCursorException;
 import com.usermanager.manager.exception.authentication.PasswordFormatNotValidException;
+import com.usermanager.manager.exception.authentication.PasswordHashingUnavailableException;
+import com.usermanager.manager.exception.authentication.SigningKeyException;
 import com.usermanager.manager.exception.authentication.TokenInvalid;
 import com.usermanager.manager.exception.authentication.TokenInvalidException;
 import com.usermanager.manager.exception.authentication.TokenNotFoundException;
+import com.usermanager.manager.exception.mail.CampaignAlreadyRunningException;
+import com.usermanager.manager.exception.mail.CampaignNotFoundException;
 import com.usermanager.manager.exception.user.UserExistsException;
 import com.usermanager.manager.exception.user.UserNotEnabledException;
 import com.usermanager.manager.exception.user.UserNotFoundException;
@@ -69,8 +76,40 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(401).body(new ResponseMessage("Token expired or invalid: " + ex.getMessage()));
     }
 
+    @ExceptionHandler(SigningKeyException.class)
+    public ResponseEntity<ResponseMessage> handleSigningKeyException(SigningKeyException ex) {
+        return ResponseEntity.status(400).body(new ResponseMessage("Signing key error: " + ex.getMessage()));
+    }
+
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<ResponseMessage> handlePasswordHashingUnavailable(PasswordHashingUnavailableException ex) {
+        return ResponseEntity.status(503)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ResponseMessage("Service busy, try again later: " + ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidSessionCursorException.class)
+    public ResponseEntity<ResponseMessage> handleInvalidSessionCursor(InvalidSessionCursorException ex) {
+        return ResponseEntity.status(400).body(new ResponseMessage(ex.getMessage()));
+    }
+
+    @ExceptionHandler(IntrospectionBatchTooLargeException.class)
+    public ResponseEntity<ResponseMessage> handleIntrospectionBatchTooLarge(IntrospectionBatchTooLargeException ex) {
+        return ResponseEntity.status(413).body(new ResponseMessage(ex.getMessage()));
+    }
+
     @ExceptionHandler(PasswordFormatNotValidException.class)
     public ResponseEntity<ResponseMessage> handlePasswordFormatNotValid(PasswordFormatNotValidException ex) {
         return ResponseEntity.status(400).body(new ResponseMessage("Password format not valid: " + ex.getMessage()));
     }
+
+    @ExceptionHandler(CampaignNotFoundException.class)
+    public ResponseEntity<ResponseMessage> handleCampaignNotFound(CampaignNotFoundException ex) {
+        return ResponseEntity.status(404).body(new ResponseMessage(ex.getMessage()));
+    }
+
+    @ExceptionHandler(CampaignAlreadyRunningException.class)
+    public ResponseEntity<ResponseMessage> handleCampaignAlreadyRunning(CampaignAlreadyRunningException ex) {
+        return ResponseEntity.status(409).body(new ResponseMessage(ex.getMessage()));
+    }
 }
@@ -0,0 +1,46 @@
+package com.usermanager.manager.infra.grpc;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+// the gRPC port is outside the Spring Security filter chain, so every call has to present the shared
+// credential as "authorization: Bearer <api.grpc.credential>" before it reaches a service
+public class GrpcAuthenticationInterceptor implements ServerInterceptor {
+    static final Metadata.Key<String> AUTHORIZATION = Metadata.Key.of("authorization",
+            Metadata.ASCII_STRING_MARSHALLER);
+    private static final String BEARER = "Bearer ";
+
+    private final byte[] credential;
+
+    public GrpcAuthenticationInterceptor(String credential) {
+        if (credential == null || credential.isBlank()) {
+            throw new IllegalStateException("api.grpc.credential must be set when api.grpc.enabled is true");
+        }
+        this.credential = credential.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+            ServerCallHandler<Q, R> next) {
+        if (!isAuthorized(headers.get(AUTHORIZATION))) {
+            call.close(Status.UNAUTHENTICATED.withDescription("Missing or invalid credential."), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+        return next.startCall(call, headers);
+    }
+
+    // constant time, so the credential cannot be guessed byte by byte from response times
+    private boolean isAuthorized(String header) {
+        if (header == null || !header.startsWith(BEARER)) {
+            return false;
+        }
+        return MessageDigest.isEqual(credential, header.substring(BEARER.length()).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,85 @@
+package com.usermanager.manager.infra.grpc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+// the gRPC server runs next to the servlet container on its own port, outside the security filter chain;
+// it listens on loopback unless api.grpc.address says otherwise, every call must carry the shared
+// credential, and it stays off unless api.grpc.enabled is set
+@Component
+@ConditionalOnProperty(name = "api.grpc.enabled", havingValue = "true")
+@Slf4j
+public class GrpcServerLifecycle implements SmartLifecycle {
+    private final List<BindableService> services;
+    private final String address;
+    private final int port;
+    private final GrpcAuthenticationInterceptor authenticationInterceptor;
+    private final Duration shutdownGracePeriod;
+    private volatile Server server;
+
+    public GrpcServerLifecycle(List<BindableService> services,
+            @Value("${api.grpc.address:127.0.0.1}") String address,
+            @Value("${api.grpc.port:9090}") int port,
+            @Value("${api.grpc.credential:}") String credential,
+            @Value("${api.grpc.shutdown-grace-period:10s}") Duration shutdownGracePeriod) {
+        this.services = services;
+        this.address = address;
+        this.port = port;
+        this.authenticationInterceptor = new GrpcAuthenticationInterceptor(credential);
+        this.shutdownGracePeriod = shutdownGracePeriod;
+    }
+
+    @Override
+    public void start() {
+        NettyServerBuilder builder = NettyServerBuilder.forAddress(new InetSocketAddress(address, port));
+        services.forEach(service -> builder.addService(
+                ServerInterceptors.intercept(service, authenticationInterceptor)));
+        try {
+            server = builder.build().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the gRPC server on " + address + ":" + port, e);
+        }
+        log.info("gRPC server started on {}:{} with {} services", address, server.getPort(), services.size());
+    }
+
+    // in-flight calls get the grace period to finish, whatever is left after it is cancelled
+    @Override
+    public void stop() {
+        Server running = server;
+        if (running == null) {
+            return;
+        }
+
+        running.shutdown();
+        try {
+            if (!running.awaitTermination(shutdownGracePeriod.toMillis(), TimeUnit.MILLISECONDS)) {
+                running.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            running.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        log.info("gRPC server stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
@@ -0,0 +1,145 @@
+package com.usermanager.manager.infra.grpc;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.usermanager.manager.dto.authentication.TokenIntrospectionDTO;
+import com.usermanager.manager.grpc.GetPrincipalRequest;
+import com.usermanager.manager.grpc.Principal;
+import com.usermanager.manager.grpc.TokenValidationGrpc;
+import com.usermanager.manager.grpc.ValidateTokenRequest;
+import com.usermanager.manager.grpc.ValidateTokenResponse;
+import com.usermanager.manager.model.user.User;
+import com.usermanager.manager.repository.UserRepository;
+import com.usermanager.manager.service.auth.TokenIntrospectionService;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+
+// every RPC goes through TokenIntrospectionService, so a token is judged exactly as the REST
+// introspection endpoint and SecurityFilter judge it
+@Component
+@ConditionalOnProperty(name = "api.grpc.enabled", havingValue = "true")
+@Slf4j
+public class TokenValidationGrpcService extends TokenValidationGrpc.TokenValidationImplBase {
+    private final TokenIntrospectionService introspectionService;
+    private final UserRepository userRepository;
+
+    public TokenValidationGrpcService(TokenIntrospectionService introspectionService, UserRepository userRepository) {
+        this.introspectionService = introspectionService;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public void validateToken(ValidateTokenRequest request, StreamObserver<ValidateTokenResponse> responseObserver) {
+        responseObserver.onNext(validate(request));
+        responseObserver.onCompleted();
+    }
+
+    // manual flow control: the next request is only pulled once the transport can take the previous response
+    @Override
+    public StreamObserver<ValidateTokenRequest> batchValidate(StreamObserver<ValidateTokenResponse> responseObserver) {
+        ServerCallStreamObserver<ValidateTokenResponse> serverObserver =
+                (ServerCallStreamObserver<ValidateTokenResponse>) responseObserver;
+        serverObserver.disableAutoRequest();
+        FlowControl flowControl = new FlowControl(serverObserver);
+        serverObserver.setOnReadyHandler(flowControl::onReady);
+
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(ValidateTokenRequest request) {
+                serverObserver.onNext(validate(request));
+                flowControl.requestNextIfReady();
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.debug("batch validation stream cancelled by the client: {}", t.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                serverObserver.onCompleted();
+            }
+        };
+    }
+
+    @Override
+    public void getPrincipal(GetPrincipalRequest request, StreamObserver<Principal> responseObserver) {
+        TokenIntrospectionDTO introspection = introspectionService.introspect(request.getToken());
+        if (!introspection.active()) {
+            responseObserver.onError(Status.UNAUTHENTICATED.withDescription("Token invalid or expired.")
+                    .asRuntimeException());
+            return;
+        }
+
+        User user = findUser(introspection);
+        if (user == null) {
+            responseObserver.onError(Status.NOT_FOUND.withDescription("User not found").asRuntimeException());
+            return;
+        }
+
+        responseObserver.onNext(Principal.newBuilder()
+                .setId(user.getId())
+                .setLogin(user.getLogin())
+                .setName(user.getName() == null ? "" : user.getName())
+                .setRole(user.getRole().name())
+                .setEnabled(user.isEnabled())
+                .build());
+        responseObserver.onCompleted();
+    }
+
+    private ValidateTokenResponse validate(ValidateTokenRequest request) {
+        TokenIntrospectionDTO introspection = introspectionService.introspect(request.getToken());
+        ValidateTokenResponse.Builder response = ValidateTokenResponse.newBuilder()
+                .setActive(introspection.active())
+                .setCorrelationId(request.getCorrelationId());
+        if (introspection.active()) {
+            response.setSubject(introspection.sub());
+            if (introspection.uid() != null) {
+                response.setUserId(introspection.uid());
+            }
+            if (introspection.role() != null) {
+                response.setRole(introspection.role());
+            }
+            if (introspection.exp() != null) {
+                response.setExpiresAt(introspection.exp());
+            }
+        }
+        return response.build();
+    }
+
+    private User findUser(TokenIntrospectionDTO introspection) {
+        if (introspection.uid() != null) {
+            return userRepository.findById(introspection.uid()).orElse(null);
+        }
+        return userRepository.findByLogin(introspection.sub()).map(User.class::cast).orElse(null);
+    }
+
+    // onReady and onNext run serialized on the call, the flag only guards against requesting twice
+    private static final class FlowControl {
+        private final ServerCallStreamObserver<ValidateTokenResponse> observer;
+        private boolean waitingForReady = true;
+
+        FlowControl(ServerCallStreamObserver<ValidateTokenResponse> observer) {
+            this.observer = observer;
+        }
+
+        void onReady() {
+            if (waitingForReady && observer.isReady()) {
+                waitingForReady = false;
+                observer.request(1);
+            }
+        }
+
+        void requestNextIfReady() {
+            if (observer.isReady()) {
+                observer.request(1);
+            } else {
+                waitingForReady = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.usermanager.manager.infra.invalidation;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Properties;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.usermanager.manager.infra.security.cache.AuthenticationCache;
+import com.usermanager.manager.infra.security.cache.UserPrincipalCache;
+import com.usermanager.manager.infra.security.revocation.RevokedTokenStore;
+import com.usermanager.manager.infra.security.token.SigningKeyStore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+// applies the invalidations published by the other nodes to this node's caches. LISTEN needs a session of
+// its own for as long as the node runs, so it is a dedicated connection outside the pool.
+// Postgres only drops notifications for a listener that is not connected, so every (re)connect is the
+// one possible gap: the caches are flushed then, including on the first connect after startup
+@Component
+@Slf4j
+public class InvalidationListener implements SmartLifecycle {
+    private final DataSourceProperties dataSourceProperties;
+    private final InvalidationPublisher publisher;
+    private final AuthenticationCache authenticationCache;
+    private final UserPrincipalCache principalCache;
+    private final RevokedTokenStore revokedTokenStore;
+    private final SigningKeyStore signingKeyStore;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final String channel;
+    private final Duration keepaliveInterval;
+    private final Duration reconnectDelay;
+    private final Duration maxReconnectDelay;
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread thread;
+
+    public InvalidationListener(DataSourceProperties dataSourceProperties, InvalidationPublisher publisher,
+            AuthenticationCache authenticationCache, UserPrincipalCache principalCache,
+            RevokedTokenStore revokedTokenStore, SigningKeyStore signingKeyStore, MeterRegistry meterRegistry,
+            @Value("${api.security.invalidation.enabled:true}") boolean enabled,
+            @Value("${api.security.invalidation.channel:auth_invalidation}") String channel,
+            @Value("${api.security.invalidation.keepalive-interval:30s}") Duration keepaliveInterval,
+            @Value("${api.security.invalidation.reconnect-delay:1s}") Duration reconnectDelay,
+            @Value("${api.security.invalidation.max-reconnect-delay:30s}") Duration maxReconnectDelay) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.publisher = publisher;
+        this.authenticationCache = authenticationCache;
+        this.principalCache = principalCache;
+        this.revokedTokenStore = revokedTokenStore;
+        this.signingKeyStore = signingKeyStore;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.channel = channel;
+        this.keepaliveInterval = keepaliveInterval;
+        this.reconnectDelay = reconnectDelay;
+        this.maxReconnectDelay = maxReconnectDelay;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        running = true;
+        thread = Thread.ofPlatform().name("invalidation-listener").daemon().start(this::listen);
+    }
+
+    // aborting the connection is what wakes the thread up from getNotifications; a plain close would
+    // wait for the lock getNotifications holds
+    @Override
+    public void stop() {
+        running = false;
+        abortQuietly(connection);
+        if (thread != null) {
+            try {
+                thread.join(Duration.ofSeconds(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    void apply(String payload) {
+        InvalidationMessage message;
+        try {
+            message = InvalidationMessage.decode(payload);
+        } catch (IllegalArgumentException e) {
+            log.warn("{}, flushing local caches", e.getMessage());
+            flush();
+            return;
+        }
+
+        if (publisher.nodeId().equals(message.origin())) {
+            return;
+        }
+
+        switch (message.kind()) {
+            case USER -> {
+                authenticationCache.invalidateUser(message.subject());
+                principalCache.invalidate(message.subject());
+            }
+            case REVOKED_TOKEN -> revokedTokenStore.applyRevocation(message.subject(), message.timestamp());
+            case REVOKED_USER -> revokedTokenStore.applyUserRevocation(Long.valueOf(message.subject()),
+                    message.timestamp());
+            // the rotating node committed the key before notifying, reloading picks it up
+            case SIGNING_KEY -> signingKeyStore.load();
+        }
+        meterRegistry.counter("auth.invalidation.received", "kind", message.kind().name().toLowerCase())
+                .increment();
+    }
+
+    void flush() {
+        authenticationCache.invalidateAll();
+        principalCache.invalidateAll();
+        revokedTokenStore.load();
+        signingKeyStore.load();
+        meterRegistry.counter("auth.invalidation.flushes").increment();
+    }
+
+    private void listen() {
+        long delay = reconnectDelay.toMillis();
+        while (running) {
+            try (Connection listening = connect()) {
+                connection = listening;
+                try (Statement statement = listening.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("listening for cache invalidations on channel {}", channel);
+                delay = reconnectDelay.toMillis();
+                flush();
+                receive(listening.unwrap(PGConnection.class), listening);
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("invalidation listener disconnected, reconnecting in {} ms: {}", delay, e.getMessage());
+                }
+            } catch (RuntimeException e) {
+                log.error("invalidation listener failed, reconnecting in {} ms", delay, e);
+            } finally {
+                connection = null;
+            }
+
+            if (running) {
+                sleep(delay);
+                delay = Math.min(delay * 2, maxReconnectDelay.toMillis());
+            }
+        }
+    }
+
+    // a quiet channel is indistinguishable from a dead connection, so each empty wait ends with a ping
+    private void receive(PGConnection notifications, Connection listening) throws SQLException {
+        int keepaliveMillis = (int) keepaliveInterval.toMillis();
+        while (running) {
+            PGNotification[] received = notifications.getNotifications(keepaliveMillis);
+            if (received == null || received.length == 0) {
+                if (!listening.isValid(Math.max(1, keepaliveMillis / 1000))) {
+                    throw new SQLException("Invalidation listener connection is no longer valid");
+                }
+                continue;
+            }
+            for (PGNotification notification : received) {
+                apply(notification.getParameter());
+            }
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        if (dataSourceProperties.determineUsername() != null) {
+            properties.setProperty("user", dataSourceProperties.determineUsername());
+        }
+        if (dataSourceProperties.determinePassword() != null) {
+            properties.setProperty("password", dataSourceProperties.determinePassword());
+        }
+        properties.setProperty("ApplicationName", "invalidation-listener");
+        properties.setProperty("tcpKeepAlive", "true");
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+    }
+
+    private static void abortQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.abort(Runnable::run);
+        } catch (SQLException e) {
+            log.debug("aborting the invalidation listener connection failed: {}", e.getMessage());
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            running = false;
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.usermanager.manager.infra.invalidation;
+
+import java.time.Instant;
+
+// NOTIFY payloads are plain text and capped at 8000 bytes, so messages are short colon separated strings:
+// "<origin>:u:<login>", "<origin>:r:<jti>:<exp epoch seconds>", "<origin>:v:<user id>:<not-before epoch seconds>"
+// and "<origin>:k:<kid>"
+record InvalidationMessage(String origin, Kind kind, String subject, Instant timestamp) {
+
+    enum Kind {
+        USER('u'), REVOKED_TOKEN('r'), REVOKED_USER('v'), SIGNING_KEY('k');
+
+        private final char code;
+
+        Kind(char code) {
+            this.code = code;
+        }
+    }
+
+    static InvalidationMessage user(String origin, String login) {
+        return new InvalidationMessage(origin, Kind.USER, login, null);
+    }
+
+    static InvalidationMessage revokedToken(String origin, String tokenId, Instant expiresAt) {
+        return new InvalidationMessage(origin, Kind.REVOKED_TOKEN, tokenId, expiresAt);
+    }
+
+    static InvalidationMessage revokedUser(String origin, Long userId, Instant notBefore) {
+        return new InvalidationMessage(origin, Kind.REVOKED_USER, String.valueOf(userId), notBefore);
+    }
+
+    static InvalidationMessage signingKey(String origin, String kid) {
+        return new InvalidationMessage(origin, Kind.SIGNING_KEY, kid, null);
+    }
+
+    String encode() {
+        String payload = origin + ":" + kind.code + ":" + subject;
+        return timestamp == null ? payload : payload + ":" + timestamp.getEpochSecond();
+    }
+
+    static InvalidationMessage decode(String payload) {
+        String[] parts = payload.split(":", 3);
+        if (parts.length != 3 || parts[1].length() != 1) {
+            throw new IllegalArgumentException("Malformed invalidation message: " + payload);
+        }
+
+        return switch (parts[1].charAt(0)) {
+            case 'u' -> user(parts[0], parts[2]);
+            case 'k' -> signingKey(parts[0], parts[2]);
+            case 'r', 'v' -> {
+                int separator = parts[2].lastIndexOf(':');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("Malformed invalidation message: " + payload);
+                }
+                String subject = parts[2].substring(0, separator);
+                Instant timestamp = Instant.ofEpochSecond(Long.parseLong(parts[2].substring(separator + 1)));
+                yield parts[1].charAt(0) == 'r'
+                        ? revokedToken(parts[0], subject, timestamp)
+                        : revokedUser(parts[0], Long.valueOf(subject), timestamp);
+            }
+            default -> throw new IllegalArgumentException("Unknown invalidation message: " + payload);
+        };
+    }
+}
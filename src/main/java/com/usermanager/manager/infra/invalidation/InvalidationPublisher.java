@@ -0,0 +1,75 @@
+package com.usermanager.manager.infra.invalidation;
+
+import java.sql.PreparedStatement;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.usermanager.manager.model.security.SigningKeyRotationEvent;
+import com.usermanager.manager.model.security.TokenRevocationEvent;
+import com.usermanager.manager.model.security.UserInvalidationEvent;
+import com.usermanager.manager.model.security.UserRevocationEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// NOTIFY is sent in the transaction making the change: Postgres delivers it only once that commits,
+// and not at all when it rolls back, so other nodes never drop their caches for a change that did not happen
+@Component
+public class InvalidationPublisher {
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public InvalidationPublisher(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+            @Value("${api.security.invalidation.enabled:true}") boolean enabled,
+            @Value("${api.security.invalidation.channel:auth_invalidation}") String channel) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.channel = channel;
+    }
+
+    // the node that made the change has already updated its own caches, it skips its own messages
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserInvalidation(UserInvalidationEvent event) {
+        publish(InvalidationMessage.user(nodeId, event.login()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onTokenRevocation(TokenRevocationEvent event) {
+        publish(InvalidationMessage.revokedToken(nodeId, event.tokenId(), event.expiresAt()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserRevocation(UserRevocationEvent event) {
+        publish(InvalidationMessage.revokedUser(nodeId, event.userId(), event.notBefore()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onSigningKeyRotation(SigningKeyRotationEvent event) {
+        publish(InvalidationMessage.signingKey(nodeId, event.kid()));
+    }
+
+    private void publish(InvalidationMessage message) {
+        if (!enabled) {
+            return;
+        }
+
+        jdbcTemplate.execute("SELECT pg_notify(?, ?)", (PreparedStatement statement) -> {
+            statement.setString(1, channel);
+            statement.setString(2, message.encode());
+            return statement.execute();
+        });
+        meterRegistry.counter("auth.invalidation.published", "kind", message.kind().name().toLowerCase()).increment();
+    }
+}
@@ -0,0 +1,179 @@
+package com.usermanager.manager.infra.mail;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.usermanager.manager.model.email.MailProvider;
+import com.usermanager.manager.repository.MailOutboxRepository;
+import com.usermanager.manager.repository.MailOutboxRepository.ClaimedMail;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+// every node polls the outbox; claims skip rows locked by other nodes, so they split the backlog between them
+@Component
+@Slf4j
+public class MailOutboxDispatcher {
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final MailOutboxRepository mailOutboxRepository;
+    private final MailProvider mailProvider;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration sendTimeout;
+    private final Duration retryDelay;
+    private final Duration maxRetryDelay;
+    // ids of mails whose send outlived send-timeout and has not settled yet
+    private final Set<Long> lateSends = ConcurrentHashMap.newKeySet();
+
+    public MailOutboxDispatcher(MailOutboxRepository mailOutboxRepository, MailProvider mailProvider,
+            MeterRegistry meterRegistry,
+            @Value("${api.mail.outbox.enabled:true}") boolean enabled,
+            @Value("${api.mail.outbox.batch-size:20}") int batchSize,
+            @Value("${api.mail.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${api.mail.outbox.send-timeout:10s}") Duration sendTimeout,
+            @Value("${api.mail.outbox.retry-delay:30s}") Duration retryDelay,
+            @Value("${api.mail.outbox.max-retry-delay:1h}") Duration maxRetryDelay) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.mailProvider = mailProvider;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.sendTimeout = sendTimeout;
+        this.retryDelay = retryDelay;
+        this.maxRetryDelay = maxRetryDelay;
+    }
+
+    @Scheduled(initialDelayString = "${api.mail.outbox.initial-delay:PT5S}",
+            fixedDelayString = "${api.mail.outbox.poll-interval:PT2S}")
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+
+        // a late send may sit in the mail executor queue behind slow ones for longer than any fixed lease, so
+        // its claim is renewed on every poll, and nothing new is claimed until it settles
+        if (!lateSends.isEmpty()) {
+            mailOutboxRepository.extendLease(Set.copyOf(lateSends), LocalDateTime.now().plus(lease()));
+            return;
+        }
+
+        List<ClaimedMail> batch;
+        boolean deferred;
+        do {
+            batch = claim();
+            deferred = deliver(batch);
+        } while (batch.size() == batchSize && !deferred && !Thread.currentThread().isInterrupted());
+    }
+
+    private List<ClaimedMail> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        return mailOutboxRepository.claim(now, now.plus(lease()), batchSize);
+    }
+
+    // results are collected in claim order with send-timeout each, so the lease covers batch-size of them
+    // plus one more as slack; a mail is claimed again only if its node died before marking it. sends that
+    // run past their timeout get the lease renewed by dispatch until they settle
+    private Duration lease() {
+        return sendTimeout.multipliedBy(batchSize + 1L);
+    }
+
+    // the whole batch is handed to the mail executor before waiting on any of it; returns whether the
+    // executor pushed back, in which case the remaining backlog waits for the next poll
+    private boolean deliver(List<ClaimedMail> batch) {
+        List<CompletableFuture<Void>> sends = new ArrayList<>(batch.size());
+        for (ClaimedMail mail : batch) {
+            sends.add(mailProvider.sendEmail(mail.getRecipient(), mail.getSubject(), mail.getBody()));
+        }
+
+        boolean deferred = false;
+        for (int i = 0; i < batch.size(); i++) {
+            deferred |= !complete(batch.get(i), sends.get(i));
+        }
+        return deferred;
+    }
+
+    private boolean complete(ClaimedMail mail, CompletableFuture<Void> send) {
+        try {
+            send.get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            sent(mail);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // the lease releases the mail, it is retried after it passes
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                // the executor queue was full, the mail goes back without spending an attempt
+                mailOutboxRepository.release(mail.getId(), LocalDateTime.now());
+                meterRegistry.counter("mail.outbox.dispatched", "result", "deferred").increment();
+                return false;
+            }
+            failed(mail, e.getCause());
+        } catch (TimeoutException e) {
+            // the send cannot be cancelled and may still reach the server: scheduling a retry now could
+            // deliver the mail twice, so the row stays claimed until the send settles one way or the other
+            log.warn("mail {} to {} still sending after {}, settling it once the send ends", mail.getId(),
+                    mail.getRecipient(), sendTimeout);
+            meterRegistry.counter("mail.outbox.dispatched", "result", "late").increment();
+            lateSends.add(mail.getId());
+            mailOutboxRepository.extendLease(Set.of(mail.getId()), LocalDateTime.now().plus(lease()));
+            send.whenComplete((result, error) -> {
+                lateSends.remove(mail.getId());
+                if (error == null) {
+                    sent(mail);
+                } else {
+                    failed(mail, error instanceof CompletionException ? error.getCause() : error);
+                }
+            });
+        }
+        return true;
+    }
+
+    private void sent(ClaimedMail mail) {
+        mailOutboxRepository.markSent(mail.getId(), LocalDateTime.now());
+        meterRegistry.counter("mail.outbox.dispatched", "result", "sent").increment();
+    }
+
+    private void failed(ClaimedMail mail, Throwable cause) {
+        String error = abbreviate(String.valueOf(cause));
+        if (mail.getAttempts() >= maxAttempts) {
+            mailOutboxRepository.markDead(mail.getId(), error);
+            meterRegistry.counter("mail.outbox.dispatched", "result", "dead").increment();
+            log.error("mail {} to {} gave up after {} attempts: {}", mail.getId(), mail.getRecipient(),
+                    mail.getAttempts(), error);
+            return;
+        }
+
+        Duration delay = backoff(mail.getAttempts());
+        mailOutboxRepository.markRetry(mail.getId(), LocalDateTime.now().plus(delay), error);
+        meterRegistry.counter("mail.outbox.dispatched", "result", "retry").increment();
+        log.warn("mail {} attempt {} failed, retrying in {}: {}", mail.getId(), mail.getAttempts(), delay, error);
+    }
+
+    // retry-delay doubled after each failed attempt, capped at max-retry-delay
+    Duration backoff(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration delay = retryDelay.multipliedBy(1L << doublings);
+        return delay.compareTo(maxRetryDelay) > 0 ? maxRetryDelay : delay;
+    }
+
+    private static String abbreviate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -1,28 +1,59 @@
 package com.usermanager.manager.infra.mail;
 
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.usermanager.manager.model.email.MailProvider;
+import com.usermanager.manager.infra.mail.template.MailTemplateEngine;
+import com.usermanager.manager.infra.mail.template.RenderedMail;
+import com.usermanager.manager.model.email.OutboxMail;
+import com.usermanager.manager.repository.MailOutboxRepository;
 
+// every mail joins the caller's transaction: it exists only if the change that produced it commits, and
+// MailOutboxDispatcher sends it afterwards. MANDATORY sits on the class because the public methods reach
+// enqueue through this, not through the proxy; a caller without a transaction fails instead of writing alone
 @Service
+@Transactional(propagation = Propagation.MANDATORY)
 public class MailService {
-    private static final String API_PREFIX = "http://localhost:8080/api/auth/";
-    public final MailProvider mailProvider;
+    private final MailOutboxRepository mailOutboxRepository;
+    private final MailTemplateEngine templateEngine;
+    private final String apiPrefix;
 
-    public MailService(MailProvider mailProvider) {
-        this.mailProvider = mailProvider;
+    public MailService(MailOutboxRepository mailOutboxRepository, MailTemplateEngine templateEngine,
+            @Value("${api.mail.base-url:http://localhost:8080}") String baseUrl) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.templateEngine = templateEngine;
+        this.apiPrefix = baseUrl.replaceAll("/+$", "") + "/api/auth/";
     }
 
+    // the mail is rendered in the locale of the current request (Accept-Language)
     public void sendVerificationMail(String recipient, String token ) {
-        String subject = "Verify your e-mail";
-        String body = "Click here to activate your account: " + API_PREFIX + "register/confirm?token=" + token;
-        mailProvider.sendEmail(recipient, subject, body);
+        sendVerificationMail(recipient, token, LocaleContextHolder.getLocale(), LocalDateTime.now());
+    }
+
+    // used outside of a request, by mail campaigns, which also schedule when the mail goes out
+    public void sendVerificationMail(String recipient, String token, Locale locale, LocalDateTime notBefore) {
+        String link = apiPrefix + "register/confirm?token=" + token;
+        enqueue(recipient, templateEngine.render("verification", locale, Map.of("link", link)), notBefore);
+    }
+
+    public void sendPolicyNotice(String recipient, Locale locale, LocalDateTime notBefore) {
+        enqueue(recipient, templateEngine.render("policy-notice", locale, Map.of("recipient", recipient)), notBefore);
     }
 
     public void sendResetPasswordEmail(String recipient, String token) {
-        String subject = "Verify your e-mail";
-        String body = "Click here to reset your password: " + API_PREFIX + "password/reset?token=" + token;
-        mailProvider.sendEmail(recipient, subject, body);
+        String link = apiPrefix + "password/reset?token=" + token;
+        enqueue(recipient, templateEngine.render("password-reset", LocaleContextHolder.getLocale(), Map.of("link", link)),
+                LocalDateTime.now());
+    }
 
+    private void enqueue(String recipient, RenderedMail mail, LocalDateTime notBefore) {
+        mailOutboxRepository.save(new OutboxMail(recipient, mail.subject(), mail.body(), notBefore));
     }
 }
@@ -0,0 +1,196 @@
+package com.usermanager.manager.infra.mail;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+// keeps authenticated SMTP connections open between sends, so only the first mail on a connection pays
+// for the TCP connect, STARTTLS and AUTH; a connection is closed after max-messages mails or idle-timeout
+// without use, whichever comes first
+@Component
+@Slf4j
+public class SmtpConnectionPool {
+    private final Session session;
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final int maxMessages;
+    private final Duration idleTimeout;
+    private final Duration borrowTimeout;
+    private final MeterRegistry meterRegistry;
+    private final Timer connectTimer;
+    private final Timer sendTimer;
+
+    // most recently used first, so the connections at the tail are the ones that go idle
+    private final BlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    // one permit per connection the pool may have open
+    private final Semaphore permits;
+    private final AtomicInteger active = new AtomicInteger();
+    private volatile boolean closed;
+
+    public SmtpConnectionPool(JavaMailSenderImpl mailSender, MeterRegistry meterRegistry,
+            @Value("${api.mail.smtp.pool.max-size:4}") int maxSize,
+            @Value("${api.mail.smtp.pool.max-messages:100}") int maxMessages,
+            @Value("${api.mail.smtp.pool.idle-timeout:30s}") Duration idleTimeout,
+            @Value("${api.mail.smtp.pool.borrow-timeout:10s}") Duration borrowTimeout) {
+        this.session = mailSender.getSession();
+        this.host = mailSender.getHost();
+        this.port = mailSender.getPort();
+        this.username = mailSender.getUsername();
+        this.password = mailSender.getPassword();
+        this.maxMessages = maxMessages;
+        this.idleTimeout = idleTimeout;
+        this.borrowTimeout = borrowTimeout;
+        this.permits = new Semaphore(maxSize);
+        this.meterRegistry = meterRegistry;
+        this.connectTimer = meterRegistry.timer("mail.smtp.connect");
+        this.sendTimer = meterRegistry.timer("mail.smtp.send");
+        Gauge.builder("mail.smtp.pool.connections", active, AtomicInteger::get).tag("state", "active")
+                .register(meterRegistry);
+        Gauge.builder("mail.smtp.pool.connections", idle, BlockingDeque::size).tag("state", "idle")
+                .register(meterRegistry);
+    }
+
+    public void send(MimeMessage message) throws MessagingException {
+        acquire();
+        active.incrementAndGet();
+        try {
+            message.saveChanges();
+            // never retried here: once DATA went out a failure does not tell whether the server took the
+            // mail, sending it again on another connection could deliver it twice; the outbox decides
+            sendOn(borrow(), message);
+        } finally {
+            active.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${api.mail.smtp.pool.eviction-interval:PT30S}")
+    public void evictIdle() {
+        long cutoff = System.nanoTime() - idleTimeout.toNanos();
+        for (PooledConnection connection : idle) {
+            if (connection.lastUsed - cutoff < 0 && idle.remove(connection)) {
+                close(connection, "idle");
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        closed = true;
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            close(connection, "shutdown");
+        }
+    }
+
+    private void acquire() {
+        try {
+            if (!permits.tryAcquire(borrowTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new MailSendException("No SMTP connection available within " + borrowTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted waiting for an SMTP connection");
+        }
+    }
+
+    // the server may have dropped a connection while it sat in the pool; isConnected sends a NOOP, so a
+    // dead one is found before MAIL FROM, while switching to a new connection cannot duplicate the mail
+    private PooledConnection borrow() throws MessagingException {
+        long cutoff = System.nanoTime() - idleTimeout.toNanos();
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            if (connection.lastUsed - cutoff < 0) {
+                close(connection, "idle");
+            } else if (connection.transport.isConnected()) {
+                return connection;
+            } else {
+                log.debug("pooled SMTP connection was dropped by the server, opening a new one");
+                close(connection, "dropped");
+            }
+        }
+        return connect();
+    }
+
+    private PooledConnection connect() throws MessagingException {
+        Transport transport = session.getTransport("smtp");
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            transport.connect(host, port, username, password);
+        } finally {
+            sample.stop(connectTimer);
+        }
+        return new PooledConnection(transport);
+    }
+
+    // the connection goes back to the pool unless the send broke it
+    private void sendOn(PooledConnection connection, MimeMessage message) throws MessagingException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            connection.transport.sendMessage(message, message.getAllRecipients());
+            connection.sent++;
+        } catch (SendFailedException e) {
+            // rejected recipients, the session itself is still usable
+            release(connection);
+            throw e;
+        } catch (MessagingException | RuntimeException e) {
+            close(connection, "error");
+            throw e;
+        } finally {
+            sample.stop(sendTimer);
+        }
+        release(connection);
+    }
+
+    private void release(PooledConnection connection) {
+        if (closed) {
+            close(connection, "shutdown");
+        } else if (connection.sent >= maxMessages) {
+            close(connection, "max-messages");
+        } else {
+            connection.lastUsed = System.nanoTime();
+            idle.offerFirst(connection);
+        }
+    }
+
+    private void close(PooledConnection connection, String reason) {
+        meterRegistry.counter("mail.smtp.pool.closed", "reason", reason).increment();
+        try {
+            connection.transport.close();
+        } catch (MessagingException e) {
+            log.debug("failed to close SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    private static final class PooledConnection {
+        private final Transport transport;
+        private int sent;
+        private volatile long lastUsed = System.nanoTime();
+
+        private PooledConnection(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
@@ -1,46 +1,68 @@
 package com.usermanager.manager.infra.mail;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.mail.javamail.MimeMessagePreparator;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import com.usermanager.manager.model.email.MailProvider;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @Service
 public class SmtpMailProvider implements MailProvider{
 
     private final JavaMailSender javaMailSender;
+    private final SmtpConnectionPool connectionPool;
+    private final ThreadPoolExecutor mailExecutor;
+    private final MeterRegistry meterRegistry;
 
     @Value("${spring.mail.username}")
     private String sender;
 
-    public SmtpMailProvider(JavaMailSender javaMailSender) {
+    public SmtpMailProvider(JavaMailSender javaMailSender, SmtpConnectionPool connectionPool,
+            @Qualifier("mailExecutor") ThreadPoolExecutor mailExecutor, MeterRegistry meterRegistry) {
         this.javaMailSender = javaMailSender;
+        this.connectionPool = connectionPool;
+        this.mailExecutor = mailExecutor;
+        this.meterRegistry = meterRegistry;
     }
 
-    @Async
+    // the future fails with RejectedExecutionException when the mail executor queue is full;
+    // mail.delivery times each send from submission, including the wait in the queue
     @Override
     public CompletableFuture<Void> sendEmail(String recipient, String subject, String content) {
-        MimeMessagePreparator messagePreparator = mimeMessage -> {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<Void> delivery;
+        try {
+            delivery = CompletableFuture.runAsync(() -> send(recipient, subject, content), mailExecutor);
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("mail.delivery.rejected").increment();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return delivery.whenComplete((result, error) -> sample.stop(
+                meterRegistry.timer("mail.delivery", "result", error == null ? "success" : "failure")));
+    }
+
+    private void send(String recipient, String subject, String content) {
+        try {
+            var mimeMessage = javaMailSender.createMimeMessage();
             var messageHelper = new MimeMessageHelper(mimeMessage);
             messageHelper.setTo(recipient);
             messageHelper.setFrom(sender);
             messageHelper.setSubject(subject);
             messageHelper.setText(content, true);
-        };
-
-        return CompletableFuture.runAsync(() -> {
-            try {
-                javaMailSender.send(messagePreparator);
-            } catch (Exception e) {
-                throw new MailSendException(e.getMessage());
-            }
-        });
+            connectionPool.send(mimeMessage);
+        } catch (Exception e) {
+            throw new MailSendException(e.getMessage(), e);
+        }
     }
 }
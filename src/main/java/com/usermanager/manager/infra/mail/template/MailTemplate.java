@@ -0,0 +1,81 @@
+package com.usermanager.manager.infra.mail.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// a template split once into literal text and {{variable}} slots; rendering only appends
+final class MailTemplate {
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    // room reserved per variable when sizing the output buffer
+    private static final int VARIABLE_LENGTH_HINT = 64;
+
+    // literals[i] comes before variables[i], the last literal closes the template
+    private final String[] literals;
+    private final String[] variables;
+    private final int lengthHint;
+
+    private MailTemplate(String[] literals, String[] variables) {
+        this.literals = literals;
+        this.variables = variables;
+        int length = variables.length * VARIABLE_LENGTH_HINT;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.lengthHint = length;
+    }
+
+    static MailTemplate compile(String source, String origin) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        int position = 0;
+        int open;
+        while ((open = source.indexOf(OPEN, position)) >= 0) {
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalStateException("Unclosed " + OPEN + " in mail template " + origin);
+            }
+            String name = source.substring(open + OPEN.length(), close).trim();
+            if (!name.matches("[A-Za-z][A-Za-z0-9]*")) {
+                throw new IllegalStateException("Invalid variable '" + name + "' in mail template " + origin);
+            }
+            literals.add(source.substring(position, open));
+            variables.add(name);
+            position = close + CLOSE.length();
+        }
+        literals.add(source.substring(position));
+        return new MailTemplate(literals.toArray(String[]::new), variables.toArray(String[]::new));
+    }
+
+    void appendTo(StringBuilder out, Map<String, String> values, boolean escapeHtml) {
+        out.ensureCapacity(out.length() + lengthHint);
+        out.append(literals[0]);
+        for (int i = 0; i < variables.length; i++) {
+            String value = values.get(variables[i]);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing mail template variable " + variables[i]);
+            }
+            if (escapeHtml) {
+                appendEscaped(out, value);
+            } else {
+                out.append(value);
+            }
+            out.append(literals[i + 1]);
+        }
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.usermanager.manager.infra.mail.template;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+// templates are <name>.html for the default locale and <name>_<locale>.html (e.g. verification_pt_BR.html)
+// for translations; the first line of each is <!-- subject: ... --> and both parts may use {{variables}}.
+// everything is parsed at startup, a send only looks up the compiled template and appends
+@Component
+@Slf4j
+public class MailTemplateEngine {
+    private static final String SUFFIX = ".html";
+    private static final String SUBJECT_OPEN = "<!-- subject:";
+    private static final String SUBJECT_CLOSE = "-->";
+    // buffers that grew past this are not kept for the next render
+    private static final int MAX_RETAINED_BUFFER = 16 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    // read-only once the constructor returns, so renders share it without locking
+    private final Map<String, Map<Locale, CompiledMail>> templates = new HashMap<>();
+
+    public MailTemplateEngine(@Value("${api.mail.templates:classpath*:mail/templates/*.html}") String location) {
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(location)) {
+                load(resource);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load mail templates from " + location, e);
+        }
+        log.info("compiled {} mail templates", templates.values().stream().mapToInt(Map::size).sum());
+    }
+
+    public RenderedMail render(String name, Locale locale, Map<String, String> values) {
+        CompiledMail mail = resolve(name, locale);
+        StringBuilder buffer = BUFFER.get();
+        try {
+            buffer.setLength(0);
+            mail.subject().appendTo(buffer, values, false);
+            String subject = buffer.toString();
+
+            buffer.setLength(0);
+            mail.body().appendTo(buffer, values, true);
+            return new RenderedMail(subject, buffer.toString());
+        } finally {
+            if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+                BUFFER.remove();
+            }
+        }
+    }
+
+    // the requested locale comes from the client's Accept-Language, so nothing is cached per locale: the
+    // fallback to language and then default is at most three lookups in the maps built at startup
+    private CompiledMail resolve(String name, Locale requested) {
+        Map<Locale, CompiledMail> byLocale = templates.get(name);
+        if (byLocale == null) {
+            throw new IllegalArgumentException("Unknown mail template " + name);
+        }
+
+        Locale locale = requested == null ? Locale.ROOT : requested;
+        CompiledMail mail = byLocale.get(Locale.of(locale.getLanguage(), locale.getCountry()));
+        if (mail == null) {
+            mail = byLocale.get(Locale.of(locale.getLanguage()));
+        }
+        if (mail == null) {
+            mail = byLocale.get(Locale.ROOT);
+        }
+        if (mail == null) {
+            throw new IllegalArgumentException("Mail template " + name + " has no default locale version");
+        }
+        return mail;
+    }
+
+    private void load(Resource resource) throws IOException {
+        String filename = resource.getFilename();
+        if (filename == null || !filename.endsWith(SUFFIX)) {
+            return;
+        }
+
+        String base = filename.substring(0, filename.length() - SUFFIX.length());
+        int separator = base.indexOf('_');
+        String name = separator < 0 ? base : base.substring(0, separator);
+        Locale locale = separator < 0 ? Locale.ROOT
+                : Locale.forLanguageTag(base.substring(separator + 1).replace('_', '-'));
+
+        String source = resource.getContentAsString(StandardCharsets.UTF_8);
+        int lineEnd = source.indexOf('\n');
+        String firstLine = (lineEnd < 0 ? source : source.substring(0, lineEnd)).trim();
+        if (!firstLine.startsWith(SUBJECT_OPEN) || !firstLine.endsWith(SUBJECT_CLOSE)) {
+            throw new IllegalStateException("Mail template " + filename + " must start with "
+                    + SUBJECT_OPEN + " ... " + SUBJECT_CLOSE);
+        }
+
+        String subject = firstLine.substring(SUBJECT_OPEN.length(), firstLine.length() - SUBJECT_CLOSE.length()).trim();
+        String body = lineEnd < 0 ? "" : source.substring(lineEnd + 1);
+        CompiledMail mail = new CompiledMail(MailTemplate.compile(subject, filename), MailTemplate.compile(body, filename));
+        if (templates.computeIfAbsent(name, ignored -> new HashMap<>()).put(locale, mail) != null) {
+            throw new IllegalStateException("Duplicate mail template " + filename);
+        }
+    }
+
+    private record CompiledMail(MailTemplate subject, MailTemplate body) {
+    }
+}
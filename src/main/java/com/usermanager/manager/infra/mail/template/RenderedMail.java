@@ -0,0 +1,4 @@
+package com.usermanager.manager.infra.mail.template;
+
+public record RenderedMail(String subject, String body) {
+}
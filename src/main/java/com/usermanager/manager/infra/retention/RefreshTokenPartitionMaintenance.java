@@ -0,0 +1,188 @@
+package com.usermanager.manager.infra.retention;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+// refresh_token is range partitioned by week on expires_at (see V9): weeks are created ahead of time
+// and whole weeks are dropped once every token in them is past the retention grace period
+@Component
+@Slf4j
+public class RefreshTokenPartitionMaintenance {
+    private static final long LOCK_KEY = 0x746f6b656e5f7074L;
+    private static final String PARENT = "refresh_token";
+    private static final String DEFAULT_PARTITION = "refresh_token_default";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final Pattern PARTITION_NAME = Pattern.compile("refresh_token_p(\\d{8})");
+
+    private static final String LIST_PARTITIONS = """
+            SELECT c.relname FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'refresh_token'::regclass
+            """;
+
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int weeksAhead;
+    private final Duration gracePeriod;
+
+    public RefreshTokenPartitionMaintenance(DataSource dataSource, MeterRegistry meterRegistry,
+            @Value("${api.security.token.partition.enabled:true}") boolean enabled,
+            @Value("${api.security.token.partition.weeks-ahead:4}") int weeksAhead,
+            @Value("${api.security.token.retention.grace-period:1d}") Duration gracePeriod) {
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.weeksAhead = weeksAhead;
+        this.gracePeriod = gracePeriod;
+    }
+
+    @Scheduled(initialDelayString = "${api.security.token.partition.initial-delay:PT10S}",
+            fixedDelayString = "${api.security.token.partition.interval:PT6H}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            if (!AdvisoryLock.tryLock(connection, LOCK_KEY)) {
+                log.debug("refresh token partition maintenance skipped, another node holds the lock");
+                return;
+            }
+            try {
+                List<LocalDate> existing = existingWeeks(connection);
+                createUpcomingWeeks(connection, existing, LocalDate.now());
+                dropExpiredWeeks(connection, existing, LocalDateTime.now().minus(gracePeriod));
+            } finally {
+                AdvisoryLock.unlock(connection, LOCK_KEY);
+            }
+        } catch (SQLException e) {
+            log.error("refresh token partition maintenance failed", e);
+        }
+    }
+
+    static LocalDate weekOf(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    static String partitionName(LocalDate weekStart) {
+        return PARENT + "_p" + SUFFIX.format(weekStart);
+    }
+
+    private List<LocalDate> existingWeeks(Connection connection) throws SQLException {
+        List<LocalDate> weeks = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+                ResultSet result = statement.executeQuery(LIST_PARTITIONS)) {
+            while (result.next()) {
+                Matcher matcher = PARTITION_NAME.matcher(result.getString(1));
+                if (matcher.matches()) {
+                    weeks.add(LocalDate.parse(matcher.group(1), SUFFIX));
+                }
+            }
+        }
+        return weeks;
+    }
+
+    // the current week and the next ones must exist before tokens expiring in them are issued
+    private void createUpcomingWeeks(Connection connection, List<LocalDate> existing, LocalDate today)
+            throws SQLException {
+        LocalDate currentWeek = weekOf(today);
+        for (int week = 0; week <= weeksAhead; week++) {
+            LocalDate weekStart = currentWeek.plusWeeks(week);
+            if (!existing.contains(weekStart)) {
+                createWeek(connection, weekStart);
+            }
+        }
+    }
+
+    // rows already in the default partition for that week are moved before attaching,
+    // otherwise the attach would fail on the default partition constraint. the default partition is locked
+    // against writes first, so no token for that week can reach it between the move and the attach
+    private void createWeek(Connection connection, LocalDate weekStart) throws SQLException {
+        String name = partitionName(weekStart);
+        LocalDateTime from = weekStart.atStartOfDay();
+        LocalDateTime to = from.plusWeeks(1);
+
+        inTransaction(connection, () -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LOCK TABLE " + DEFAULT_PARTITION + " IN SHARE ROW EXCLUSIVE MODE");
+                statement.execute("CREATE TABLE " + name + " (LIKE " + PARENT + " INCLUDING DEFAULTS)");
+            }
+            try (PreparedStatement move = connection.prepareStatement(
+                    "WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                            + " WHERE expires_at >= ? AND expires_at < ? RETURNING *)"
+                            + " INSERT INTO " + name + " SELECT * FROM moved")) {
+                move.setObject(1, from);
+                move.setObject(2, to);
+                move.executeUpdate();
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ALTER TABLE " + PARENT + " ATTACH PARTITION " + name
+                        + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            }
+        });
+
+        meterRegistry.counter("auth.retention.partitions", "action", "created").increment();
+        log.info("created refresh token partition {}", name);
+    }
+
+    private void dropExpiredWeeks(Connection connection, List<LocalDate> existing, LocalDateTime cutoff)
+            throws SQLException {
+        for (LocalDate weekStart : existing) {
+            if (weekStart.plusWeeks(1).atStartOfDay().isAfter(cutoff)) {
+                continue;
+            }
+
+            String name = partitionName(weekStart);
+            inTransaction(connection, () -> {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + name);
+                    statement.execute("DROP TABLE " + name);
+                }
+            });
+
+            meterRegistry.counter("auth.retention.partitions", "action", "dropped").increment();
+            log.info("dropped expired refresh token partition {}", name);
+        }
+    }
+
+    private static void inTransaction(Connection connection, SqlWork work) throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            work.run();
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlWork {
+        void run() throws SQLException;
+    }
+}
@@ -0,0 +1,185 @@
+package com.usermanager.manager.infra.retention;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+public class TokenRetentionJob {
+    // arbitrary key shared by every node, only one of them purges at a time
+    private static final long LOCK_KEY = 0x746f6b656e5f7274L;
+
+    // expired weeks are dropped by RefreshTokenPartitionMaintenance, only the default partition is purged
+    // here (ctid is not unique across partitions); used refresh tokens are kept until they expire,
+    // they are what detects the reuse of a rotated token
+    private static final String PURGE_REFRESH_TOKENS = """
+            DELETE FROM refresh_token_default WHERE ctid = ANY(ARRAY(
+                SELECT ctid FROM refresh_token_default
+                WHERE expires_at < ?
+                LIMIT ?))
+            """;
+
+    private static final String PURGE_VERIFICATION_TOKENS = """
+            DELETE FROM verification_token WHERE ctid = ANY(ARRAY(
+                SELECT ctid FROM verification_token
+                WHERE expiration_date < ? OR (activated AND activation_date < ?)
+                LIMIT ?))
+            """;
+
+    // a revoked access token is rejected by its own exp afterwards, no grace period needed
+    private static final String PURGE_REVOKED_TOKENS = """
+            DELETE FROM revoked_token WHERE ctid = ANY(ARRAY(
+                SELECT ctid FROM revoked_token
+                WHERE expires_at < ?
+                LIMIT ?))
+            """;
+
+    // past expires_at every token issued before the cutoff has expired on its own
+    private static final String PURGE_REVOKED_USERS = """
+            DELETE FROM revoked_user WHERE ctid = ANY(ARRAY(
+                SELECT ctid FROM revoked_user
+                WHERE expires_at < ?
+                LIMIT ?))
+            """;
+
+    // sent and dead mails still carry verification links in their body
+    private static final String PURGE_MAIL_OUTBOX = """
+            DELETE FROM mail_outbox WHERE ctid = ANY(ARRAY(
+                SELECT ctid FROM mail_outbox
+                WHERE status <> 'PENDING' AND created_at < ?
+                LIMIT ?))
+            """;
+
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration gracePeriod;
+    private final int batchSize;
+    private final Duration batchPause;
+    private final Duration mailRetention;
+
+    public TokenRetentionJob(DataSource dataSource, MeterRegistry meterRegistry,
+            @Value("${api.security.token.retention.enabled:true}") boolean enabled,
+            @Value("${api.security.token.retention.grace-period:1d}") Duration gracePeriod,
+            @Value("${api.security.token.retention.batch-size:1000}") int batchSize,
+            @Value("${api.security.token.retention.batch-pause:100ms}") Duration batchPause,
+            @Value("${api.mail.outbox.retention:7d}") Duration mailRetention) {
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.gracePeriod = gracePeriod;
+        this.batchSize = batchSize;
+        this.batchPause = batchPause;
+        this.mailRetention = mailRetention;
+    }
+
+    @Scheduled(initialDelayString = "${api.security.token.retention.initial-delay:PT1M}",
+            fixedDelayString = "${api.security.token.retention.interval:PT1H}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+
+        // the advisory lock belongs to the session, so the whole run stays on one dedicated connection
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            if (!AdvisoryLock.tryLock(connection, LOCK_KEY)) {
+                log.debug("token retention skipped, another node holds the lock");
+                return;
+            }
+            try {
+                purgeRefreshTokens(connection);
+                purgeVerificationTokens(connection);
+                purgeRevokedTokens(connection);
+                purgeMailOutbox(connection);
+            } finally {
+                AdvisoryLock.unlock(connection, LOCK_KEY);
+            }
+        } catch (SQLException e) {
+            log.error("token retention failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void purgeRefreshTokens(Connection connection) throws SQLException, InterruptedException {
+        LocalDateTime cutoff = LocalDateTime.now().minus(gracePeriod);
+        purgeInBatches(connection, "refresh_token_default", PURGE_REFRESH_TOKENS, statement -> {
+            statement.setObject(1, cutoff);
+            statement.setInt(2, batchSize);
+        });
+    }
+
+    private void purgeVerificationTokens(Connection connection) throws SQLException, InterruptedException {
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(gracePeriod);
+        purgeInBatches(connection, "verification_token", PURGE_VERIFICATION_TOKENS, statement -> {
+            statement.setObject(1, cutoff);
+            statement.setObject(2, cutoff);
+            statement.setInt(3, batchSize);
+        });
+    }
+
+    private void purgeRevokedTokens(Connection connection) throws SQLException, InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        purgeInBatches(connection, "revoked_token", PURGE_REVOKED_TOKENS, statement -> {
+            statement.setObject(1, now);
+            statement.setInt(2, batchSize);
+        });
+        purgeInBatches(connection, "revoked_user", PURGE_REVOKED_USERS, statement -> {
+            statement.setObject(1, now);
+            statement.setInt(2, batchSize);
+        });
+    }
+
+    private void purgeMailOutbox(Connection connection) throws SQLException, InterruptedException {
+        LocalDateTime cutoff = LocalDateTime.now().minus(mailRetention);
+        purgeInBatches(connection, "mail_outbox", PURGE_MAIL_OUTBOX, statement -> {
+            statement.setObject(1, cutoff);
+            statement.setInt(2, batchSize);
+        });
+    }
+
+    // each batch commits on its own, short transactions keep row locks and WAL bursts small
+    private void purgeInBatches(Connection connection, String table, String sql, Binder binder)
+            throws SQLException, InterruptedException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long purged = 0;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            binder.bind(statement);
+            int deleted;
+            do {
+                deleted = statement.executeUpdate();
+                purged += deleted;
+                if (deleted == batchSize && !batchPause.isZero()) {
+                    Thread.sleep(batchPause.toMillis());
+                }
+            } while (deleted == batchSize);
+        } finally {
+            sample.stop(meterRegistry.timer("auth.retention.duration", "table", table));
+            meterRegistry.counter("auth.retention.purged", "table", table).increment(purged);
+        }
+
+        if (purged > 0) {
+            log.info("token retention purged {} rows from {}", purged, table);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Binder {
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+}
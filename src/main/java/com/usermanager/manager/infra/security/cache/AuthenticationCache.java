@@ -0,0 +1,88 @@
+package com.usermanager.manager.infra.security.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.usermanager.manager.infra.security.token.TokenDigest;
+import com.usermanager.manager.model.security.AccessTokenClaims;
+import com.usermanager.manager.model.security.UserInvalidationEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+@Component
+public class AuthenticationCache {
+
+    public record CachedAuthentication(Authentication authentication, AccessTokenClaims claims) {
+    }
+
+    private final boolean enabled;
+    private final Cache<String, CachedAuthentication> cache;
+
+    public AuthenticationCache(@Value("${api.security.token.cache.enabled:true}") boolean enabled,
+            @Value("${api.security.token.cache.maximum-size:10000}") long maximumSize,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpires())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "authentication.tokens");
+    }
+
+    public CachedAuthentication get(String token, Function<String, CachedAuthentication> loader) {
+        if (!enabled) {
+            return loader.apply(token);
+        }
+        return cache.get(TokenDigest.sha256Hex(token), key -> loader.apply(token));
+    }
+
+    // entries are keyed by token digest, so a user's entries are found by scanning; this only runs on
+    // password changes and deactivations
+    public void invalidateUser(String login) {
+        cache.asMap().values().removeIf(cached -> login.equals(cached.claims().login()));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    // after commit, so a concurrent request cannot cache the state the transaction is replacing
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserInvalidation(UserInvalidationEvent event) {
+        invalidateUser(event.login());
+    }
+
+    // entries never outlive the token they were built from
+    private static class UntilTokenExpires implements Expiry<String, CachedAuthentication> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedAuthentication value, long currentTime) {
+            Duration remaining = Duration.between(Instant.now(), value.claims().expiresAt());
+            return Math.max(0, remaining.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedAuthentication value, long currentTime,
+                long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedAuthentication value, long currentTime,
+                long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.usermanager.manager.infra.security.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.usermanager.manager.model.security.UserInvalidationEvent;
+import com.usermanager.manager.model.user.User;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// users by login for the read paths (request authentication, login, password reset requests);
+// changes to a user publish a UserInvalidationEvent and the TTL bounds anything missed
+@Component
+public class UserPrincipalCache {
+
+    private final boolean enabled;
+    private final Cache<String, User> cache;
+
+    public UserPrincipalCache(@Value("${api.security.principal-cache.enabled:true}") boolean enabled,
+            @Value("${api.security.principal-cache.maximum-size:10000}") long maximumSize,
+            @Value("${api.security.principal-cache.ttl:5m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users.principals");
+    }
+
+    // unknown logins are not cached, a user registered right after a miss is found;
+    // callers get their own copy, they modify and save it while other threads read the cached one
+    public Optional<User> get(String login, Function<String, Optional<UserDetails>> loader) {
+        if (!enabled) {
+            return loader.apply(login).map(User.class::cast);
+        }
+
+        User cached = cache.get(login, key -> loader.apply(key).map(User.class::cast).map(UserPrincipalCache::copy)
+                .orElse(null));
+        return Optional.ofNullable(cached).map(UserPrincipalCache::copy);
+    }
+
+    public void invalidate(String login) {
+        cache.invalidate(login);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    // after commit, a load racing with the transaction is still in the cache's compute and gets removed too
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserInvalidation(UserInvalidationEvent event) {
+        invalidate(event.login());
+    }
+
+    private static User copy(User user) {
+        return User.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .login(user.getLogin())
+                .password(user.getPassword())
+                .role(user.getRole())
+                .isEnabled(user.getIsEnabled())
+                .build();
+    }
+}
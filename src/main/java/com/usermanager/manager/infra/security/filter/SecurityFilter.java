@@ -2,16 +2,25 @@ package com.usermanager.manager.infra.security.filter;
 
 import java.io.IOException;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.usermanager.manager.exception.authentication.TokenInvalid;
+import com.usermanager.manager.infra.security.cache.AuthenticationCache;
+import com.usermanager.manager.infra.security.cache.AuthenticationCache.CachedAuthentication;
+import com.usermanager.manager.infra.security.cache.UserPrincipalCache;
+import com.usermanager.manager.model.security.AccessTokenClaims;
 import com.usermanager.manager.model.security.TokenProvider;
+import com.usermanager.manager.model.security.TokenRevocationChecker;
+import com.usermanager.manager.model.user.User;
 import com.usermanager.manager.repository.UserRepository;
 
 import jakarta.servlet.FilterChain;
@@ -26,10 +35,22 @@ public class SecurityFilter extends OncePerRequestFilter {
 
     private TokenProvider tokenProvider;
     private UserRepository userRepository;
+    private ObjectProvider<TokenRevocationChecker> revocationChecker;
+    private AuthenticationCache authenticationCache;
+    private UserPrincipalCache principalCache;
 
-    public SecurityFilter(TokenProvider tokenProvider, UserRepository userRepository) {
+    // when enabled the principal is built from the signed claims, without querying the users table
+    @Value("${api.security.token.stateless:true}")
+    private boolean stateless;
+
+    public SecurityFilter(TokenProvider tokenProvider, UserRepository userRepository,
+            ObjectProvider<TokenRevocationChecker> revocationChecker, AuthenticationCache authenticationCache,
+            UserPrincipalCache principalCache) {
         this.tokenProvider = tokenProvider;
         this.userRepository = userRepository;
+        this.revocationChecker = revocationChecker;
+        this.authenticationCache = authenticationCache;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -67,14 +88,43 @@ public class SecurityFilter extends OncePerRequestFilter {
         return authHeader.replace("Bearer ", "");
     }
 
-    private UsernamePasswordAuthenticationToken createAuthentication(String token) {
-        String login = tokenProvider.validateToken(token);
-        UserDetails user = userRepository.findByLogin(login).orElseThrow(
-                () -> new BadCredentialsException("Bad credentials: verify login or password"));
+    private Authentication createAuthentication(String token) {
+        CachedAuthentication cached = authenticationCache.get(token, this::authenticate);
+
+        // revocation, of the token or of every token of its user, is checked on every request, cached or not
+        TokenRevocationChecker checker = revocationChecker.getIfAvailable();
+        if (checker != null && checker.isRevoked(cached.claims())) {
+            throw new TokenInvalid("Token has been revoked.");
+        }
+
+        return cached.authentication();
+    }
+
+    private CachedAuthentication authenticate(String token) {
+        AccessTokenClaims claims = tokenProvider.validateAccessToken(token);
 
-        return new UsernamePasswordAuthenticationToken(
+        UserDetails user = stateless && claims.isComplete()
+                ? principalFromClaims(claims)
+                : principalCache.get(claims.login(), userRepository::findByLogin).orElseThrow(
+                        () -> new BadCredentialsException("Bad credentials: verify login or password"));
+
+        if (!user.isEnabled()) {
+            throw new TokenInvalid("User is not enabled.");
+        }
+
+        var authentication = new UsernamePasswordAuthenticationToken(
                 user,
                 null,
                 user.getAuthorities());
+        return new CachedAuthentication(authentication, claims);
+    }
+
+    private User principalFromClaims(AccessTokenClaims claims) {
+        return User.builder()
+                .id(claims.userId())
+                .login(claims.login())
+                .role(claims.role())
+                .isEnabled(claims.enabled())
+                .build();
     }
 }
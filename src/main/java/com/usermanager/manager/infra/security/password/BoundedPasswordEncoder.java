@@ -0,0 +1,96 @@
+package com.usermanager.manager.infra.security.password;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.usermanager.manager.exception.authentication.PasswordHashingUnavailableException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// runs every hash on a dedicated executor so a burst of logins cannot take over the CPU. each caller
+// parks its request thread until the hash is done, so admission is capped by maxConcurrent (kept below the
+// request thread pool) rather than by the executor queue; above it callers fail fast instead of piling up
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    private static final String HASH_TIMER = "auth.password.hashing";
+
+    private final PasswordEncoder delegate;
+    private final ExecutorService executor;
+    // one permit per request thread allowed to wait on a hash, queued or running
+    private final Semaphore permits;
+    private final long retryAfterSeconds;
+    private final Counter rejected;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, ExecutorService executor, int maxConcurrent,
+            long retryAfterSeconds, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.permits = new Semaphore(maxConcurrent);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.rejected = meterRegistry.counter("auth.password.hashing.rejected");
+        this.encodeTimer = meterRegistry.timer(HASH_TIMER, "operation", "encode");
+        this.matchesTimer = meterRegistry.timer(HASH_TIMER, "operation", "matches");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(Callable<T> task) {
+        if (!permits.tryAcquire()) {
+            throw unavailable();
+        }
+
+        try {
+            Future<T> future;
+            try {
+                future = executor.submit(task);
+            } catch (RejectedExecutionException e) {
+                throw unavailable();
+            }
+            return await(future);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private PasswordHashingUnavailableException unavailable() {
+        rejected.increment();
+        return new PasswordHashingUnavailableException("Too many concurrent password operations", retryAfterSeconds);
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
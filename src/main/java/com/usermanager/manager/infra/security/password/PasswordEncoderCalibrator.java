@@ -0,0 +1,108 @@
+package com.usermanager.manager.infra.security.password;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+public class PasswordEncoderCalibrator {
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+
+    private static final String SAMPLE_PASSWORD = "calibration-password-1";
+    private static final int SAMPLES = 3;
+    private static final int MIN_BCRYPT_STRENGTH = 10;
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+    private static final int MIN_ARGON2_ITERATIONS = 2;
+    private static final int MAX_ARGON2_ITERATIONS = 20;
+    private static final int ARGON2_MEMORY_KB = 1 << 14;
+
+    private final String algorithm;
+    private final boolean calibrate;
+    private final Duration targetLatency;
+    private final int bcryptStrength;
+    private final int argon2Iterations;
+
+    public PasswordEncoderCalibrator(@Value("${api.security.password.algorithm:bcrypt}") String algorithm,
+            @Value("${api.security.password.calibrate:true}") boolean calibrate,
+            @Value("${api.security.password.target-latency:250ms}") Duration targetLatency,
+            @Value("${api.security.password.bcrypt.strength:10}") int bcryptStrength,
+            @Value("${api.security.password.argon2.iterations:2}") int argon2Iterations) {
+        this.algorithm = algorithm.toLowerCase();
+        this.calibrate = calibrate;
+        this.targetLatency = targetLatency;
+        this.bcryptStrength = bcryptStrength;
+        this.argon2Iterations = argon2Iterations;
+    }
+
+    // hashes are stored as {id}hash; unprefixed hashes written before the delegating encoder are bcrypt
+    public PasswordEncoder createEncoder() {
+        int strength = calibrate && BCRYPT.equals(algorithm) ? calibrateBCrypt() : bcryptStrength;
+        int iterations = calibrate && ARGON2.equals(algorithm) ? calibrateArgon2() : argon2Iterations;
+        log.info("password encoder {} configured, bcrypt strength {}, argon2 iterations {}",
+                algorithm, strength, iterations);
+
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        Map<String, PasswordEncoder> encoders = Map.of(
+                BCRYPT, bcrypt,
+                ARGON2, argon2(iterations));
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException("Unsupported password algorithm: " + algorithm);
+        }
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    // every extra bcrypt round doubles the cost, so one measurement at the minimum is enough
+    private int calibrateBCrypt() {
+        Duration baseline = measure(new BCryptPasswordEncoder(MIN_BCRYPT_STRENGTH));
+        int extraRounds = (int) Math.round(log2((double) targetLatency.toNanos() / baseline.toNanos()));
+        int strength = clamp(MIN_BCRYPT_STRENGTH + extraRounds, MIN_BCRYPT_STRENGTH, MAX_BCRYPT_STRENGTH);
+        log.info("bcrypt calibration: strength {} took {} ms, target {} ms, using strength {}",
+                MIN_BCRYPT_STRENGTH, baseline.toMillis(), targetLatency.toMillis(), strength);
+        return strength;
+    }
+
+    // argon2 cost grows linearly with the number of iterations
+    private int calibrateArgon2() {
+        Duration baseline = measure(argon2(MIN_ARGON2_ITERATIONS));
+        int iterations = clamp(
+                (int) Math.round(MIN_ARGON2_ITERATIONS * (double) targetLatency.toNanos() / baseline.toNanos()),
+                MIN_ARGON2_ITERATIONS, MAX_ARGON2_ITERATIONS);
+        log.info("argon2 calibration: {} iterations took {} ms, target {} ms, using {} iterations",
+                MIN_ARGON2_ITERATIONS, baseline.toMillis(), targetLatency.toMillis(), iterations);
+        return iterations;
+    }
+
+    private static PasswordEncoder argon2(int iterations) {
+        return new Argon2PasswordEncoder(16, 32, 1, ARGON2_MEMORY_KB, iterations);
+    }
+
+    private static Duration measure(PasswordEncoder encoder) {
+        encoder.encode(SAMPLE_PASSWORD);
+        long start = System.nanoTime();
+        for (int i = 0; i < SAMPLES; i++) {
+            encoder.encode(SAMPLE_PASSWORD);
+        }
+        return Duration.ofNanos(Math.max(1, (System.nanoTime() - start) / SAMPLES));
+    }
+
+    private static double log2(double value) {
+        return Math.log(value) / Math.log(2);
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
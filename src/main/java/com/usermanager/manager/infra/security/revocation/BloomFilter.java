@@ -0,0 +1,68 @@
+package com.usermanager.manager.infra.security.revocation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// fixed size bloom filter over strings: no false negatives, false positives bounded by the sizing;
+// bits are set with CAS so lookups never lock
+final class BloomFilter {
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    BloomFilter(int expectedEntries, double falsePositiveRate) {
+        int entries = Math.max(1, expectedEntries);
+        long bits = (long) Math.ceil(-entries * Math.log(falsePositiveRate) / (LN2 * LN2));
+        int wordCount = (int) Math.max(1, (bits + 63) >>> 6);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = wordCount * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / entries * LN2));
+    }
+
+    void put(String key) {
+        long hash = hash64(key);
+        long step = mix(hash) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash + i * step, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+            } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    boolean mightContain(String key) {
+        long hash = hash64(key);
+        long step = mix(hash) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash + i * step, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a over the chars, finalized so that both derived hashes use every input bit
+    private static long hash64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    // murmur3 fmix64
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,178 @@
+package com.usermanager.manager.infra.security.revocation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.usermanager.manager.model.security.AccessTokenClaims;
+import com.usermanager.manager.model.security.RevokedToken;
+import com.usermanager.manager.model.security.RevokedUser;
+import com.usermanager.manager.model.security.TokenRevocationChecker;
+import com.usermanager.manager.model.security.TokenRevocationEvent;
+import com.usermanager.manager.model.security.UserRevocationEvent;
+import com.usermanager.manager.repository.RevokedTokenRepository;
+import com.usermanager.manager.repository.RevokedUserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+// access token denylist checked by SecurityFilter on every request: the bloom filter answers the common
+// "not revoked" case without touching the map, positives are confirmed against the exact jti -> exp map.
+// entries only live until the token would have expired anyway; revoked_token is the durable copy.
+// a user can also be revoked as a whole (disabled, password reset): every access token issued before the
+// cutoff is rejected, whatever its jti, until the last of them has expired; revoked_user is the durable copy
+@Component
+@Slf4j
+public class RevokedTokenStore implements TokenRevocationChecker {
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RevokedUserRepository revokedUserRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration accessTokenLifetime;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    // user id -> not-before cutoff
+    private final Map<Long, Instant> revokedUsers = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    private int capacity;
+
+    public RevokedTokenStore(RevokedTokenRepository revokedTokenRepository,
+            RevokedUserRepository revokedUserRepository, ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${api.security.token.expiration:15}") long accessExpirationMinutes,
+            @Value("${api.security.token.revocation.expected-entries:100000}") int expectedEntries,
+            @Value("${api.security.token.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.revokedUserRepository = revokedUserRepository;
+        this.eventPublisher = eventPublisher;
+        this.accessTokenLifetime = Duration.ofMinutes(accessExpirationMinutes);
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedEntries, falsePositiveRate);
+        this.capacity = expectedEntries;
+        meterRegistry.gaugeMapSize("auth.revocation.entries", Tags.empty(), revoked);
+        meterRegistry.gaugeMapSize("auth.revocation.users", Tags.empty(), revokedUsers);
+    }
+
+    @PostConstruct
+    public synchronized void load() {
+        LocalDateTime now = LocalDateTime.now();
+        for (RevokedToken token : revokedTokenRepository.findAllByExpiresAtAfter(now)) {
+            revoked.put(token.getJti(), token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant());
+        }
+        for (RevokedUser user : revokedUserRepository.findAllByExpiresAtAfter(now)) {
+            revokedUsers.merge(user.getUserId(), user.getNotBefore().atZone(ZoneId.systemDefault()).toInstant(),
+                    RevokedTokenStore::latest);
+        }
+        rebuild();
+        log.info("loaded {} revoked access tokens and {} revoked users", revoked.size(), revokedUsers.size());
+    }
+
+    @Override
+    public boolean isRevoked(AccessTokenClaims claims) {
+        if (claims.userId() != null && !revokedUsers.isEmpty()) {
+            Instant notBefore = revokedUsers.get(claims.userId());
+            // iat has second precision, the cutoff is rounded up to the next second; tokens without iat predate it
+            if (notBefore != null && (claims.issuedAt() == null || claims.issuedAt().isBefore(notBefore))) {
+                return true;
+            }
+        }
+
+        String tokenId = claims.tokenId();
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        return revoked.containsKey(tokenId);
+    }
+
+    // tokens without a jti predate revocation support and simply run out at their exp;
+    // the event tells the other nodes, in the same transaction as the insert
+    @Transactional
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (tokenId == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+
+        revokedTokenRepository.revoke(tokenId, LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()));
+        eventPublisher.publishEvent(new TokenRevocationEvent(tokenId, expiresAt));
+        add(tokenId, expiresAt);
+    }
+
+    // a revocation made on another node, already persisted there
+    public void applyRevocation(String tokenId, Instant expiresAt) {
+        if (expiresAt.isAfter(Instant.now())) {
+            add(tokenId, expiresAt);
+        }
+    }
+
+    // rejects every access token of the user issued so far, joined to the caller's transaction like revoke;
+    // tokens issued later in the same second are rejected too, the user logs in again a moment later
+    @Transactional
+    public void revokeUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+
+        Instant notBefore = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        revokedUserRepository.revoke(userId, LocalDateTime.ofInstant(notBefore, ZoneId.systemDefault()),
+                LocalDateTime.ofInstant(notBefore.plus(accessTokenLifetime), ZoneId.systemDefault()));
+        eventPublisher.publishEvent(new UserRevocationEvent(userId, notBefore));
+        applyUserRevocation(userId, notBefore);
+    }
+
+    // a user revocation made on another node, already persisted there
+    public void applyUserRevocation(Long userId, Instant notBefore) {
+        if (notBefore.plus(accessTokenLifetime).isAfter(Instant.now())) {
+            revokedUsers.merge(userId, notBefore, RevokedTokenStore::latest);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${api.security.token.revocation.cleanup-interval:PT1M}")
+    public synchronized void evictExpired() {
+        Instant now = Instant.now();
+        revokedUsers.values().removeIf(notBefore -> !notBefore.plus(accessTokenLifetime).isAfter(now));
+        if (revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now))) {
+            rebuild();
+        }
+    }
+
+    int size() {
+        return revoked.size();
+    }
+
+    private static Instant latest(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    // the map is written before the filter, so a concurrent lookup can miss a revocation still in
+    // flight but never drops one that has been added
+    private synchronized void add(String tokenId, Instant expiresAt) {
+        revoked.put(tokenId, expiresAt);
+        if (revoked.size() > capacity) {
+            rebuild();
+        } else {
+            filter.put(tokenId);
+        }
+    }
+
+    // bloom filters cannot delete, expired entries are dropped by building a new one;
+    // it is resized when the denylist outgrows the configured size so the false positive rate holds
+    private void rebuild() {
+        capacity = Math.max(expectedEntries, revoked.size() * 2);
+        BloomFilter next = new BloomFilter(capacity, falsePositiveRate);
+        revoked.keySet().forEach(next::put);
+        filter = next;
+    }
+}
@@ -0,0 +1,31 @@
+package com.usermanager.manager.infra.security.token;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public class OpaqueTokenGenerator {
+    private static final int TOKEN_BYTES = 32;
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    // one generator per thread, a shared SecureRandom serializes every login on its internal lock
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(OpaqueTokenGenerator::newRandom);
+
+    // 256 random bits, base64url encoded (43 chars)
+    public String generate() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.get().nextBytes(bytes);
+        return BASE64_URL.encodeToString(bytes);
+    }
+
+    private static SecureRandom newRandom() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.usermanager.manager.infra.security.token;
+
+import java.security.interfaces.ECPublicKey;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.JWTVerifier;
+
+// publicKey is only set for asymmetric keys, which are the only ones published in the JWKS
+public record SigningKey(String kid, Algorithm algorithm, JWTVerifier verifier, ECPublicKey publicKey) {
+
+}
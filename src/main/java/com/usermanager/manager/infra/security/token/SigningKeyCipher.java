@@ -0,0 +1,120 @@
+package com.usermanager.manager.infra.security.token;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.usermanager.manager.exception.authentication.SigningKeyException;
+import com.usermanager.manager.model.security.TokenSigningKey;
+
+// rotated secrets and private keys are encrypted before they reach token_signing_key, so a copy of the table
+// alone cannot sign tokens. AES-256-GCM under a key derived from api.security.token.key-encryption-key, with
+// the kid as associated data: a ciphertext moved to another row fails to decrypt
+@Component
+public class SigningKeyCipher {
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+    private static final int MIN_KEY_LENGTH = 32;
+
+    private final SecureRandom random = new SecureRandom();
+    // null when no key is configured, rotation is unavailable then
+    private final SecretKeySpec key;
+
+    public SigningKeyCipher(@Value("${api.security.token.key-encryption-key:}") String keyEncryptionKey) {
+        if (keyEncryptionKey.isBlank()) {
+            this.key = null;
+            return;
+        }
+        if (keyEncryptionKey.length() < MIN_KEY_LENGTH) {
+            throw new SigningKeyException("api.security.token.key-encryption-key must have at least "
+                    + MIN_KEY_LENGTH + " characters");
+        }
+        this.key = new SecretKeySpec(sha256(keyEncryptionKey), "AES");
+    }
+
+    TokenSigningKey seal(TokenSigningKey plain) {
+        return copy(plain, encrypt(plain.getSecret(), plain.getKid()), encrypt(plain.getPrivateKey(), plain.getKid()));
+    }
+
+    TokenSigningKey open(TokenSigningKey sealed) {
+        return copy(sealed, decrypt(sealed.getSecret(), sealed.getKid()),
+                decrypt(sealed.getPrivateKey(), sealed.getKid()));
+    }
+
+    private String encrypt(String plain, String kid) {
+        if (plain == null) {
+            return null;
+        }
+        byte[] iv = new byte[IV_LENGTH];
+        random.nextBytes(iv);
+        byte[] encrypted = apply(Cipher.ENCRYPT_MODE, iv, kid, plain.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(ByteBuffer.allocate(IV_LENGTH + encrypted.length)
+                .put(iv).put(encrypted).array());
+    }
+
+    private String decrypt(String sealed, String kid) {
+        if (sealed == null) {
+            return null;
+        }
+        byte[] bytes = decodeBase64(sealed);
+        if (bytes.length <= IV_LENGTH) {
+            throw new SigningKeyException("Stored signing key " + kid + " is not encrypted");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte[] iv = new byte[IV_LENGTH];
+        buffer.get(iv);
+        byte[] encrypted = new byte[buffer.remaining()];
+        buffer.get(encrypted);
+        return new String(apply(Cipher.DECRYPT_MODE, iv, kid, encrypted), StandardCharsets.UTF_8);
+    }
+
+    private byte[] apply(int mode, byte[] iv, String kid, byte[] input) {
+        if (key == null) {
+            throw new SigningKeyException("api.security.token.key-encryption-key is required to store rotated keys");
+        }
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(mode, key, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+            return cipher.doFinal(input);
+        } catch (GeneralSecurityException e) {
+            // a wrong key-encryption-key ends here as well, GCM rejects the tag
+            throw new SigningKeyException("Unable to " + (mode == Cipher.ENCRYPT_MODE ? "encrypt" : "decrypt")
+                    + " signing key " + kid + ", " + e);
+        }
+    }
+
+    private static byte[] decodeBase64(String value) {
+        try {
+            return Base64.getDecoder().decode(value);
+        } catch (IllegalArgumentException e) {
+            return new byte[0];
+        }
+    }
+
+    private static TokenSigningKey copy(TokenSigningKey source, String secret, String privateKey) {
+        TokenSigningKey copy = new TokenSigningKey(source.getKid(), source.getAlgorithm(), secret, privateKey,
+                source.getPublicKey(), source.getConfiguredKid());
+        copy.setCreatedAt(source.getCreatedAt());
+        return copy;
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new SigningKeyException("Unable to derive the key encryption key, " + e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.usermanager.manager.infra.security.token;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.usermanager.manager.exception.authentication.SigningKeyException;
+import com.usermanager.manager.model.security.SigningKeyRotationEvent;
+import com.usermanager.manager.model.security.TokenSigningKey;
+import com.usermanager.manager.repository.TokenSigningKeyRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+// token_signing_key is the shared copy of the keys rotated at runtime; a node only ever signs with a key
+// it loaded from there, never with one that exists in its memory alone. the other nodes reload when the
+// invalidation bus delivers the rotation, the periodic reload covers nodes running without the bus.
+// the key material is encrypted by SigningKeyCipher on the way in and decrypted on the way out
+@Component
+@Slf4j
+public class SigningKeyStore {
+    private final TokenSigningKeyRepository signingKeyRepository;
+    private final TokenKeyRing keyRing;
+    private final SigningKeyCipher cipher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxPreviousKeys;
+
+    public SigningKeyStore(TokenSigningKeyRepository signingKeyRepository, TokenKeyRing keyRing,
+            SigningKeyCipher cipher, ApplicationEventPublisher eventPublisher,
+            @Value("${api.security.token.max-previous-keys:2}") int maxPreviousKeys) {
+        this.signingKeyRepository = signingKeyRepository;
+        this.keyRing = keyRing;
+        this.cipher = cipher;
+        this.eventPublisher = eventPublisher;
+        this.maxPreviousKeys = maxPreviousKeys;
+    }
+
+    @PostConstruct
+    @Scheduled(initialDelayString = "${api.security.token.key-reload-interval:PT5M}",
+            fixedDelayString = "${api.security.token.key-reload-interval:PT5M}")
+    public void load() {
+        List<TokenSigningKey> rotations = new ArrayList<>();
+        for (TokenSigningKey stored : signingKeyRepository.findAllByOrderByCreatedAtAscKidAsc()) {
+            // a row this node cannot decrypt (key-encryption-key missing or different) is left out of the ring
+            try {
+                rotations.add(cipher.open(stored));
+            } catch (SigningKeyException e) {
+                log.error("skipping stored signing key {}: {}", stored.getKid(), e.getMessage());
+            }
+        }
+        keyRing.reload(rotations);
+        log.debug("loaded {} rotated signing keys, active kid {}", rotations.size(), keyRing.activeKey().kid());
+    }
+
+    // rows older than the ring can hold are deleted, the keys they held no longer verify anything
+    @Transactional
+    public String rotate(String secret) {
+        TokenSigningKey key = keyRing.newKey(secret);
+        if (key.getKid().equals(keyRing.activeKey().kid())) {
+            return key.getKid();
+        }
+
+        signingKeyRepository.save(cipher.seal(key));
+        List<TokenSigningKey> stored = signingKeyRepository.findAllByOrderByCreatedAtAscKidAsc();
+        if (stored.size() > maxPreviousKeys + 1) {
+            signingKeyRepository.deleteAll(stored.subList(0, stored.size() - maxPreviousKeys - 1));
+        }
+        eventPublisher.publishEvent(new SigningKeyRotationEvent(key.getKid()));
+        return key.getKid();
+    }
+
+    // this node switches once the key is committed, never to a key a rollback would discard
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRotation(SigningKeyRotationEvent event) {
+        load();
+    }
+}
@@ -0,0 +1,22 @@
+package com.usermanager.manager.infra.security.token;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public final class TokenDigest {
+
+    private TokenDigest() {
+    }
+
+    // fixed-width (64 hex chars) SHA-256 of a token, so raw tokens never need to be kept as keys
+    public static String sha256Hex(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.usermanager.manager.infra.security.token;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.JWTVerifier;
+import com.usermanager.manager.exception.authentication.JWTException;
+import com.usermanager.manager.exception.authentication.SigningKeyException;
+import com.usermanager.manager.model.security.TokenSigningKey;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+public class TokenKeyRing {
+    public static final String HS256 = "HS256";
+    public static final String ES256 = "ES256";
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final String signingAlgorithm;
+    private final int maxPreviousKeys;
+    // the keys from configuration, every reload of the stored rotations starts from them
+    private final State configured;
+    // stored rotations made on top of another configured key, only tracked to log when it changes
+    private int superseded;
+
+    // replaced atomically on rotation, so readers never need a lock
+    private volatile State state;
+
+    public TokenKeyRing(@Value("${api.security.token.algorithm:HS256}") String signingAlgorithm,
+            @Value("${api.security.token.secret:}") String secret,
+            @Value("${api.security.token.previous-secrets:}") List<String> previousSecrets,
+            @Value("${api.security.token.ec.private-key:}") String ecPrivateKey,
+            @Value("${api.security.token.ec.public-key:}") String ecPublicKey,
+            @Value("${api.security.token.ec.previous-public-keys:}") List<String> ecPreviousPublicKeys,
+            @Value("${api.security.token.max-previous-keys:2}") int maxPreviousKeys) {
+        this.signingAlgorithm = signingAlgorithm.toUpperCase();
+        this.maxPreviousKeys = maxPreviousKeys;
+
+        List<SigningKey> previous = new ArrayList<>();
+        SigningKey active;
+        switch (this.signingAlgorithm) {
+            case HS256 -> {
+                if (secret.isBlank()) {
+                    throw new SigningKeyException("api.security.token.secret is required for HS256");
+                }
+                active = hmacKey(secret);
+                previousSecrets.stream().filter(s -> !s.isBlank()).forEach(s -> previous.add(hmacKey(s)));
+            }
+            case ES256 -> {
+                // a key generated here would exist on this node only, tokens it signs would fail everywhere else
+                if (ecPrivateKey.isBlank()) {
+                    throw new SigningKeyException("api.security.token.ec.private-key is required for ES256");
+                }
+                active = ecKey(ecPrivateKey, ecPublicKey);
+                ecPreviousPublicKeys.stream().filter(k -> !k.isBlank())
+                        .forEach(k -> previous.add(ecVerificationKey((ECPublicKey) decodePublicKey(k))));
+            }
+            default -> throw new SigningKeyException("Unsupported token algorithm: " + signingAlgorithm);
+        }
+        this.configured = State.of(active, previous, maxPreviousKeys);
+        this.state = configured;
+    }
+
+    public SigningKey activeKey() {
+        return state.active();
+    }
+
+    // tokens signed before key ids were introduced carry no kid and are checked against the active key
+    public SigningKey keyFor(String kid) {
+        State current = state;
+        return kid == null ? current.active() : current.keys().get(kid);
+    }
+
+    public List<SigningKey> keys() {
+        return List.copyOf(state.keys().values());
+    }
+
+    public boolean isAsymmetric() {
+        return ES256.equals(signingAlgorithm);
+    }
+
+    // HMAC keys are never published; for ES256 every key still accepted for verification is listed
+    public List<Map<String, String>> publicJwks() {
+        return state.keys().values().stream()
+                .filter(key -> key.publicKey() != null)
+                .map(TokenKeyRing::toJwk)
+                .toList();
+    }
+
+    // the material of the next active key, applied only once SigningKeyStore has stored it: HS256 takes the
+    // given secret, ES256 generates a key pair
+    TokenSigningKey newKey(String secret) {
+        if (isAsymmetric()) {
+            KeyPair pair = generateEcKeyPair();
+            return new TokenSigningKey(thumbprint((ECPublicKey) pair.getPublic()), ES256, null,
+                    Base64.getEncoder().encodeToString(pair.getPrivate().getEncoded()),
+                    Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()), configured.active().kid());
+        }
+        if (secret == null || secret.isBlank()) {
+            throw new SigningKeyException("A new secret is required to rotate HS256 keys");
+        }
+        return new TokenSigningKey(deriveKid(secret), HS256, secret, null, null, configured.active().kid());
+    }
+
+    // the configured keys followed by the stored rotations, oldest first: every node loading the same rows
+    // ends up with the same active key, and the keys rotated out stay in the ring (and JWKS) until they age out.
+    // configuration wins over storage: a rotation only applies on top of the configured key it was made from,
+    // so once the configured secret (or EC key) changes, the new one is active and older rotations are ignored
+    synchronized void reload(List<TokenSigningKey> rotations) {
+        State next = configured;
+        int ignored = 0;
+        for (TokenSigningKey rotation : rotations) {
+            if (!signingAlgorithm.equals(rotation.getAlgorithm())) {
+                log.warn("ignoring stored {} signing key {}, tokens are signed with {}", rotation.getAlgorithm(),
+                        rotation.getKid(), signingAlgorithm);
+                continue;
+            }
+            if (!configured.active().kid().equals(rotation.getConfiguredKid())) {
+                ignored++;
+                continue;
+            }
+            next = next.rotate(toSigningKey(rotation), maxPreviousKeys);
+        }
+
+        if (ignored != superseded) {
+            log.warn("ignoring {} stored signing keys rotated from a configured key other than {}", ignored,
+                    configured.active().kid());
+            superseded = ignored;
+        }
+        // a reload builds new key objects even when nothing changed, only the kid tells a rotation apart
+        if (!next.active().kid().equals(state.active().kid())) {
+            log.info("token signing key rotated, active kid {}", next.active().kid());
+        }
+        state = next;
+    }
+
+    private static SigningKey toSigningKey(TokenSigningKey stored) {
+        return HS256.equals(stored.getAlgorithm())
+                ? hmacKey(stored.getSecret())
+                : ecKey(stored.getPrivateKey(), stored.getPublicKey());
+    }
+
+    private static SigningKey hmacKey(String secret) {
+        Algorithm algorithm = Algorithm.HMAC256(secret);
+        return new SigningKey(deriveKid(secret), algorithm, verifier(algorithm), null);
+    }
+
+    private static SigningKey ecKey(String privateKey, String publicKey) {
+        if (publicKey.isBlank()) {
+            throw new SigningKeyException("api.security.token.ec.public-key is required with a private key");
+        }
+        ECPublicKey ecPublic = (ECPublicKey) decodePublicKey(publicKey);
+        ECPrivateKey ecPrivate = (ECPrivateKey) decodePrivateKey(privateKey);
+        Algorithm algorithm = Algorithm.ECDSA256(ecPublic, ecPrivate);
+        return new SigningKey(thumbprint(ecPublic), algorithm, verifier(algorithm), ecPublic);
+    }
+
+    private static SigningKey ecVerificationKey(ECPublicKey publicKey) {
+        Algorithm algorithm = Algorithm.ECDSA256(publicKey, null);
+        return new SigningKey(thumbprint(publicKey), algorithm, verifier(algorithm), publicKey);
+    }
+
+    private static KeyPair generateEcKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new SigningKeyException("Unable to generate EC key pair, " + e);
+        }
+    }
+
+    static JWTVerifier verifier(Algorithm algorithm) {
+        // iat is only used for per-user revocation, a node whose clock runs behind the issuer must not reject it
+        return JWT.require(algorithm)
+                .withIssuer(TokenService.TOKEN_ISSUER)
+                .ignoreIssuedAt()
+                .build();
+    }
+
+    private static PublicKey decodePublicKey(String encoded) {
+        try {
+            return KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(decodePem(encoded)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new SigningKeyException("Invalid EC public key, " + e.getMessage());
+        }
+    }
+
+    private static PrivateKey decodePrivateKey(String encoded) {
+        try {
+            return KeyFactory.getInstance("EC").generatePrivate(new PKCS8EncodedKeySpec(decodePem(encoded)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new SigningKeyException("Invalid EC private key, " + e.getMessage());
+        }
+    }
+
+    // accepts either a PEM block or its bare base64 body
+    private static byte[] decodePem(String encoded) {
+        String body = encoded.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(body);
+    }
+
+    // the kid is an HMAC of a fixed label, so it identifies the secret without exposing a plain hash of it
+    private static String deriveKid(String secret) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] digest = mac.doFinal("kid".getBytes(StandardCharsets.UTF_8));
+            return BASE64_URL.encodeToString(digest).substring(0, 16);
+        } catch (GeneralSecurityException e) {
+            throw new JWTException("Unable to derive key id, " + e);
+        }
+    }
+
+    // RFC 7638 JWK thumbprint, so downstream services can derive the same kid from the published key
+    private static String thumbprint(ECPublicKey publicKey) {
+        String canonical = String.format("{\"crv\":\"P-256\",\"kty\":\"EC\",\"x\":\"%s\",\"y\":\"%s\"}",
+                coordinate(publicKey.getW().getAffineX()), coordinate(publicKey.getW().getAffineY()));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return BASE64_URL.encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new JWTException("Unable to derive key id, " + e);
+        }
+    }
+
+    private static Map<String, String> toJwk(SigningKey key) {
+        Map<String, String> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("kid", key.kid());
+        jwk.put("use", "sig");
+        jwk.put("alg", ES256);
+        jwk.put("x", coordinate(key.publicKey().getW().getAffineX()));
+        jwk.put("y", coordinate(key.publicKey().getW().getAffineY()));
+        return jwk;
+    }
+
+    // P-256 coordinates are always encoded on exactly 32 bytes
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[32];
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, fixed, 32 - length, length);
+        return BASE64_URL.encodeToString(fixed);
+    }
+
+    private record State(SigningKey active, Map<String, SigningKey> keys) {
+
+        static State of(SigningKey active, List<SigningKey> previous, int maxPreviousKeys) {
+            Map<String, SigningKey> keys = new LinkedHashMap<>();
+            keys.put(active.kid(), active);
+            previous.stream()
+                    .limit(maxPreviousKeys)
+                    .forEach(key -> keys.putIfAbsent(key.kid(), key));
+            return new State(active, Collections.unmodifiableMap(keys));
+        }
+
+        State rotate(SigningKey next, int maxPreviousKeys) {
+            if (next.kid().equals(active.kid())) {
+                return this;
+            }
+
+            List<SigningKey> previous = new ArrayList<>();
+            previous.add(active);
+            keys.values().stream()
+                    .filter(key -> key != active && !key.kid().equals(next.kid()))
+                    .forEach(previous::add);
+            return State.of(next, previous, maxPreviousKeys);
+        }
+    }
+}
@@ -1,35 +1,57 @@
 package com.usermanager.manager.infra.security.token;
 
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.usermanager.manager.exception.authentication.JWTException;
 import com.usermanager.manager.exception.authentication.TokenInvalid;
+import com.usermanager.manager.model.security.AccessTokenClaims;
 import com.usermanager.manager.model.security.TokenProvider;
 import com.usermanager.manager.model.user.User;
+import com.usermanager.manager.model.user.UserRole;
 
 @Service
 public class TokenService implements TokenProvider{
-    @Value("${api.security.token.secret}")
-    private String secret;
-    private static final String TOKEN_ISSUER = "UserManager";
+    @Value("${api.security.token.expiration:15}")
+    private long accessExpirationMinutes;
+    static final String TOKEN_ISSUER = "UserManager";
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_ENABLED = "enabled";
+
+    private final TokenKeyRing keyRing;
+
+    public TokenService(TokenKeyRing keyRing) {
+        this.keyRing = keyRing;
+    }
 
     public String generateToken(User user) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
+            SigningKey key = keyRing.activeKey();
             return JWT.create()
+                .withKeyId(key.kid())
                 .withIssuer(TOKEN_ISSUER)
                 .withSubject(user.getLogin())
-                .withExpiresAt(genExpirationDate())
-                .sign(algorithm);
+                .withClaim(CLAIM_USER_ID, user.getId())
+                .withClaim(CLAIM_ROLE, user.getRole().name())
+                .withClaim(CLAIM_ENABLED, user.isEnabled())
+                // the jti is what a revocation (logout, compromised account) refers to
+                .withJWTId(UUID.randomUUID().toString())
+                // compared with the per-user cutoff set when the account is disabled or its password changes
+                .withIssuedAt(Instant.now())
+                .withExpiresAt(genExpirationDate(accessExpirationMinutes))
+                .sign(key.algorithm());
         } catch (JWTCreationException e) {
             throw new JWTException("Error while generating token, " + e);
         }
@@ -37,48 +59,66 @@ public class TokenService implements TokenProvider{
 
     public String generateToken(User user, long expirationMinutes) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
+            SigningKey key = keyRing.activeKey();
             return JWT.create()
+                .withKeyId(key.kid())
                 .withIssuer(TOKEN_ISSUER)
                 .withSubject(user.getLogin())
+                // keeps tokens issued within the same second distinct, they are stored by digest
+                .withJWTId(UUID.randomUUID().toString())
                 .withExpiresAt(genExpirationDate(expirationMinutes))
-                .sign(algorithm);
+                .sign(key.algorithm());
         } catch (JWTCreationException e) {
             throw new JWTException("Error while generating token, " + e);
         }
     }
 
     public String validateToken(String token) {
+        return verify(token).getSubject();
+    }
+
+    public AccessTokenClaims validateAccessToken(String token) {
+        DecodedJWT jwt = verify(token);
+        Claim userId = jwt.getClaim(CLAIM_USER_ID);
+        Claim role = jwt.getClaim(CLAIM_ROLE);
+        Claim enabled = jwt.getClaim(CLAIM_ENABLED);
+
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            return JWT.require(algorithm)
-                .withIssuer(TOKEN_ISSUER)
-                .build()
-                .verify(token)
-                .getSubject();
-        } catch (JWTVerificationException e) {
+            return new AccessTokenClaims(
+                jwt.getSubject(),
+                userId.isMissing() ? null : userId.asLong(),
+                role.isMissing() ? null : UserRole.valueOf(role.asString()),
+                !enabled.isMissing() && Boolean.TRUE.equals(enabled.asBoolean()),
+                jwt.getIssuedAtAsInstant(),
+                jwt.getExpiresAtAsInstant(),
+                jwt.getId());
+        } catch (IllegalArgumentException e) {
             throw new TokenInvalid("Token invalid or expired.");
         }
     }
 
     public String getUsernameFromToken(String token) {
+        return verify(token).getSubject();
+    }
+
+    public List<Map<String, String>> getPublicJwks() {
+        return keyRing.publicJwks();
+    }
+
+    private DecodedJWT verify(String token) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            return JWT.require(algorithm)
-                .withIssuer(TOKEN_ISSUER)
-                .build()
-                .verify(token)
-                .getSubject();
+            DecodedJWT decoded = JWT.decode(token);
+            SigningKey key = keyRing.keyFor(decoded.getKeyId());
+            if (key == null) {
+                throw new TokenInvalid("Token signed with an unknown key.");
+            }
+            return key.verifier().verify(decoded);
         } catch (JWTVerificationException e) {
             throw new TokenInvalid("Token invalid or expired.");
         }
     }
 
-    private Instant genExpirationDate() {
-        return LocalDateTime.now().plusMinutes(15).toInstant(ZoneOffset.of("-03:00"));
-    }
-
     private Instant genExpirationDate(long minutesAmount) {
-        return LocalDateTime.now().plusMinutes(minutesAmount).toInstant(ZoneOffset.of("-03:00"));
+        return Instant.now().plus(minutesAmount, ChronoUnit.MINUTES);
     }
 }
@@ -0,0 +1,73 @@
+package com.usermanager.manager.model.email;
+
+import java.time.LocalDateTime;
+
+import com.usermanager.manager.model.email.enums.CampaignStatus;
+import com.usermanager.manager.model.email.enums.CampaignType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Entity(name = "mail_campaign")
+@Table(name = "mail_campaign")
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class MailCampaign {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private CampaignType type;
+
+    @Column(length = 35)
+    private String locale;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private CampaignStatus status = CampaignStatus.RUNNING;
+
+    @Column(name = "last_user_id", nullable = false)
+    private long lastUserId;
+
+    @Column(nullable = false)
+    private long enqueued;
+
+    @Column(length = 64)
+    private String owner;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_by")
+    private String createdBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public MailCampaign(CampaignType type, String locale, String createdBy, String owner) {
+        this.type = type;
+        this.locale = locale;
+        this.createdBy = createdBy;
+        this.owner = owner;
+        this.createdAt = LocalDateTime.now();
+        this.heartbeatAt = this.createdAt;
+    }
+}
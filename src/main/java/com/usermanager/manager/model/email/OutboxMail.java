@@ -0,0 +1,69 @@
+package com.usermanager.manager.model.email;
+
+import java.time.LocalDateTime;
+
+import com.usermanager.manager.model.email.enums.OutboxStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Entity(name = "mail_outbox")
+@Table(name = "mail_outbox")
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class OutboxMail {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    public OutboxMail(String recipient, String subject, String body) {
+        this(recipient, subject, body, LocalDateTime.now());
+    }
+
+    // the dispatcher does not pick the mail up before notBefore
+    public OutboxMail(String recipient, String subject, String body, LocalDateTime notBefore) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = notBefore;
+    }
+}
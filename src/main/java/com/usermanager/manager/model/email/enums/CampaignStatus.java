@@ -0,0 +1,8 @@
+package com.usermanager.manager.model.email.enums;
+
+public enum CampaignStatus {
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+    FAILED
+}
@@ -0,0 +1,25 @@
+package com.usermanager.manager.model.email.enums;
+
+public enum CampaignType {
+
+    // re-sends the activation link to every user that never confirmed the e-mail
+    ACTIVATION_REMINDER(false, "verification"),
+    // informs every active user, e.g. of a change in the terms of use
+    POLICY_NOTICE(true, "policy-notice");
+
+    private final boolean enabledUsers;
+    private final String template;
+
+    private CampaignType(boolean enabledUsers, String template) {
+        this.enabledUsers = enabledUsers;
+        this.template = template;
+    }
+
+    public boolean targetsEnabledUsers() {
+        return this.enabledUsers;
+    }
+
+    public String getTemplate() {
+        return this.template;
+    }
+}
@@ -0,0 +1,7 @@
+package com.usermanager.manager.model.email.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    DEAD
+}
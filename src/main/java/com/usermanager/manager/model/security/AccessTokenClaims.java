@@ -0,0 +1,20 @@
+package com.usermanager.manager.model.security;
+
+import java.time.Instant;
+
+import com.usermanager.manager.model.user.UserRole;
+
+public record AccessTokenClaims(
+    String login,
+    Long userId,
+    UserRole role,
+    boolean enabled,
+    Instant issuedAt,
+    Instant expiresAt,
+    String tokenId) {
+
+    // tokens issued before the claims were introduced only carry the subject
+    public boolean isComplete() {
+        return userId != null && role != null;
+    }
+}
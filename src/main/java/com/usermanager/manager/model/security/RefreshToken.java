@@ -35,9 +35,12 @@ public class RefreshToken {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @Column(nullable = false)
-    private String token;
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
     
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
@@ -51,13 +54,17 @@ public class RefreshToken {
     @PrePersist
     void onCreate() {
         createdAt = LocalDateTime.now();
-        expiresAt = createdAt.plusDays(7);
+        if (expiresAt == null) {
+            expiresAt = createdAt.plusDays(7);
+        }
         used = false;
     }
 
-    public RefreshToken(User user, String token) {
+    public RefreshToken(User user, String tokenHash, UUID familyId, LocalDateTime expiresAt) {
         this.user = user;
-        this.token = token;
+        this.tokenHash = tokenHash;
+        this.familyId = familyId;
+        this.expiresAt = expiresAt;
         used = false;
     }
 }
@@ -0,0 +1,28 @@
+package com.usermanager.manager.model.security;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity(name = "revoked_token")
+@Table(name = "revoked_token")
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class RevokedToken {
+    @Id
+    @Column(length = 64)
+    private String jti;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "revoked_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime revokedAt;
+}
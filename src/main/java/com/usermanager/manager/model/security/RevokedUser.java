@@ -0,0 +1,28 @@
+package com.usermanager.manager.model.security;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity(name = "revoked_user")
+@Table(name = "revoked_user")
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class RevokedUser {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "not_before", nullable = false)
+    private LocalDateTime notBefore;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,5 @@
+package com.usermanager.manager.model.security;
+
+// published when a signing key is stored, every node must reload its key ring
+public record SigningKeyRotationEvent(String kid) {
+}
@@ -1,11 +1,16 @@
 package com.usermanager.manager.model.security;
 
+import java.util.List;
+import java.util.Map;
+
 import com.usermanager.manager.model.user.User;
 
 public interface TokenProvider {
 
     String generateToken(User user);
     String validateToken(String token);
+    AccessTokenClaims validateAccessToken(String token);
     String getUsernameFromToken(String token);
     String generateToken(User user, long expirationMinutes);
+    List<Map<String, String>> getPublicJwks();
 }
@@ -0,0 +1,5 @@
+package com.usermanager.manager.model.security;
+
+public interface TokenRevocationChecker {
+    boolean isRevoked(AccessTokenClaims claims);
+}
@@ -0,0 +1,7 @@
+package com.usermanager.manager.model.security;
+
+import java.time.Instant;
+
+// published when an access token is revoked, every node must reject it until it expires
+public record TokenRevocationEvent(String tokenId, Instant expiresAt) {
+}
@@ -0,0 +1,55 @@
+package com.usermanager.manager.model.security;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// secret is set for HS256, the base64 PKCS#8 / X.509 pair for ES256; secret and private key are stored
+// encrypted by SigningKeyCipher. configuredKid is the configured key the rotation was made on top of
+@Entity(name = "token_signing_key")
+@Table(name = "token_signing_key")
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(of = "kid")
+@ToString(of = {"kid", "algorithm", "createdAt"})
+public class TokenSigningKey {
+    @Id
+    @Column(length = 64)
+    private String kid;
+
+    @Column(nullable = false, length = 8)
+    private String algorithm;
+
+    @Column(columnDefinition = "TEXT")
+    private String secret;
+
+    @Column(name = "private_key", columnDefinition = "TEXT")
+    private String privateKey;
+
+    @Column(name = "public_key", columnDefinition = "TEXT")
+    private String publicKey;
+
+    @Column(name = "configured_kid", nullable = false, length = 64)
+    private String configuredKid;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public TokenSigningKey(String kid, String algorithm, String secret, String privateKey, String publicKey,
+            String configuredKid) {
+        this.kid = kid;
+        this.algorithm = algorithm;
+        this.secret = secret;
+        this.privateKey = privateKey;
+        this.publicKey = publicKey;
+        this.configuredKid = configuredKid;
+        this.createdAt = LocalDateTime.now();
+    }
+}
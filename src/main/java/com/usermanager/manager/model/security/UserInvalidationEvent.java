@@ -0,0 +1,5 @@
+package com.usermanager.manager.model.security;
+
+// published when a user's credentials or status change, anything cached about that user must be dropped
+public record UserInvalidationEvent(String login) {
+}
@@ -0,0 +1,7 @@
+package com.usermanager.manager.model.security;
+
+import java.time.Instant;
+
+// published when every access token of a user issued before notBefore must be rejected on every node
+public record UserRevocationEvent(Long userId, Instant notBefore) {
+}
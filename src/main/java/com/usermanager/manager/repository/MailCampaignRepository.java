@@ -0,0 +1,67 @@
+package com.usermanager.manager.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.usermanager.manager.model.email.MailCampaign;
+
+@Repository
+public interface MailCampaignRepository extends JpaRepository<MailCampaign, Long> {
+
+    // takes over one running campaign that has no owner or whose owner stopped sending heartbeats;
+    // not @Modifying because the statement returns rows
+    @Transactional
+    @Query(value = """
+            UPDATE mail_campaign SET owner = :owner, heartbeat_at = :now
+            WHERE id = (
+                SELECT id FROM mail_campaign
+                WHERE status = 'RUNNING' AND (owner IS NULL OR heartbeat_at < :staleBefore)
+                ORDER BY id
+                LIMIT 1
+                FOR UPDATE SKIP LOCKED)
+            RETURNING *
+            """, nativeQuery = true)
+    Optional<MailCampaign> claimStalled(@Param("owner") String owner, @Param("now") LocalDateTime now,
+            @Param("staleBefore") LocalDateTime staleBefore);
+
+    // only the owner of a running campaign moves it forward; 0 means it was cancelled or taken over
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE mail_campaign SET last_user_id = :lastUserId, enqueued = enqueued + :count, heartbeat_at = :now
+            WHERE id = :id AND owner = :owner AND status = 'RUNNING'
+            """, nativeQuery = true)
+    int checkpoint(@Param("id") Long id, @Param("owner") String owner, @Param("lastUserId") long lastUserId,
+            @Param("count") int count, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE mail_campaign SET status = :status, last_error = :error, finished_at = :now, owner = NULL
+            WHERE id = :id AND owner = :owner AND status = 'RUNNING'
+            """, nativeQuery = true)
+    int finish(@Param("id") Long id, @Param("owner") String owner, @Param("status") String status,
+            @Param("error") String error, @Param("now") LocalDateTime now);
+
+    // hands a campaign back on shutdown so that any node resumes it without waiting for the lease
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE mail_campaign SET owner = NULL WHERE id = :id AND owner = :owner AND status = 'RUNNING'",
+            nativeQuery = true)
+    int release(@Param("id") Long id, @Param("owner") String owner);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE mail_campaign SET status = 'CANCELLED', finished_at = :now, owner = NULL
+            WHERE id = :id AND status = 'RUNNING'
+            """, nativeQuery = true)
+    int cancel(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
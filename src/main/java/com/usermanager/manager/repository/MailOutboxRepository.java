@@ -0,0 +1,86 @@
+package com.usermanager.manager.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.usermanager.manager.model.email.OutboxMail;
+
+@Repository
+public interface MailOutboxRepository extends JpaRepository<OutboxMail, Long> {
+
+    // claims due mails by pushing next_attempt_at to the end of the lease; rows locked by another node's
+    // claim are skipped instead of waited on, so concurrent dispatchers never get the same mail.
+    // not @Modifying because the statement returns rows
+    @Transactional
+    @Query(value = """
+            UPDATE mail_outbox SET next_attempt_at = :leaseUntil, attempts = attempts + 1
+            WHERE id IN (
+                SELECT id FROM mail_outbox
+                WHERE status = 'PENDING' AND next_attempt_at <= :now
+                ORDER BY next_attempt_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED)
+            RETURNING id, recipient, subject, body, attempts
+            """, nativeQuery = true)
+    List<ClaimedMail> claim(@Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil,
+            @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE mail_outbox m SET m.status = com.usermanager.manager.model.email.enums.OutboxStatus.SENT,
+                m.sentAt = :now, m.lastError = null
+            WHERE m.id = :id
+            """)
+    int markSent(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE mail_outbox m SET m.nextAttemptAt = :nextAttemptAt, m.lastError = :error WHERE m.id = :id")
+    int markRetry(@Param("id") Long id, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("error") String error);
+
+    // keeps sends that outlived their timeout claimed, a mail already settled is left alone
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE mail_outbox m SET m.nextAttemptAt = :leaseUntil
+            WHERE m.id IN :ids AND m.status = com.usermanager.manager.model.email.enums.OutboxStatus.PENDING
+            """)
+    int extendLease(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // gives back a claimed mail that was never attempted
+    @Modifying
+    @Transactional
+    @Query("UPDATE mail_outbox m SET m.nextAttemptAt = :now, m.attempts = m.attempts - 1 WHERE m.id = :id")
+    int release(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE mail_outbox m SET m.status = com.usermanager.manager.model.email.enums.OutboxStatus.DEAD,
+                m.lastError = :error
+            WHERE m.id = :id
+            """)
+    int markDead(@Param("id") Long id, @Param("error") String error);
+
+    interface ClaimedMail {
+        Long getId();
+
+        String getRecipient();
+
+        String getSubject();
+
+        String getBody();
+
+        int getAttempts();
+    }
+}
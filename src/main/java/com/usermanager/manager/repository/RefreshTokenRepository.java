@@ -1,18 +1,108 @@
 package com.usermanager.manager.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.usermanager.manager.model.security.RefreshToken;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
-    Optional<RefreshToken> findByToken(String token);
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
 
-    boolean existsByToken(String token);
+    boolean existsByTokenHash(String tokenHash);
 
-    List<RefreshToken> findAllByUserId(Long userId);
+    // inserts the new token and, when the user is over maxSessions live sessions, deletes the live tokens of
+    // the oldest ones in the same statement (the snapshot does not see the new row, hence maxSessions - 1);
+    // returns how many sessions were evicted
+    @Transactional
+    @Query(value = """
+            WITH inserted AS (
+                INSERT INTO refresh_token (id, user_id, token_hash, family_id, created_at, expires_at, used)
+                VALUES (gen_random_uuid(), :userId, :tokenHash, :familyId, :now, :expiresAt, false)
+            ), evicted AS (
+                DELETE FROM refresh_token
+                WHERE :maxSessions > 0 AND (id, expires_at) IN (
+                    SELECT id, expires_at FROM refresh_token
+                    WHERE user_id = :userId AND used = false AND expires_at > :now AND family_id <> :familyId
+                    ORDER BY created_at DESC, family_id DESC
+                    OFFSET GREATEST(:maxSessions - 1, 0))
+                RETURNING id
+            )
+            SELECT count(*) FROM evicted
+            """, nativeQuery = true)
+    long insertEvictingOldest(@Param("userId") Long userId, @Param("tokenHash") String tokenHash,
+            @Param("familyId") UUID familyId, @Param("now") LocalDateTime now,
+            @Param("expiresAt") LocalDateTime expiresAt, @Param("maxSessions") int maxSessions);
 
+    // every live token is the current one of a session, its family id is the session id
+    @Query(value = """
+            SELECT family_id AS id, created_at AS refreshedAt, expires_at AS expiresAt FROM refresh_token
+            WHERE user_id = :userId AND used = false AND expires_at > :now
+            ORDER BY created_at DESC, family_id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Session> findSessions(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+            @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT family_id AS id, created_at AS refreshedAt, expires_at AS expiresAt FROM refresh_token
+            WHERE user_id = :userId AND used = false AND expires_at > :now
+              AND (created_at, family_id) < (:createdAt, :familyId)
+            ORDER BY created_at DESC, family_id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Session> findSessionsAfter(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+            @Param("createdAt") LocalDateTime createdAt, @Param("familyId") UUID familyId,
+            @Param("limit") int limit);
+
+    // marks the token used only if it is still usable, so two concurrent refreshes cannot both win;
+    // not @Modifying because the statement returns rows
+    @Transactional
+    @Query(value = """
+            UPDATE refresh_token SET used = true
+            WHERE token_hash = :tokenHash AND used = false AND expires_at > :now
+            RETURNING user_id AS userId, family_id AS familyId
+            """, nativeQuery = true)
+    Optional<ConsumedRefreshToken> consume(@Param("tokenHash") String tokenHash, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE refresh_token r SET r.used = true WHERE r.tokenHash = :tokenHash AND r.used = false")
+    int markUsed(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE refresh_token r SET r.used = true WHERE r.familyId = :familyId AND r.used = false")
+    int revokeFamily(@Param("familyId") UUID familyId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE refresh_token r SET r.used = true WHERE r.user.id = :userId AND r.familyId = :familyId AND r.used = false")
+    int revokeFamily(@Param("userId") Long userId, @Param("familyId") UUID familyId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE refresh_token r SET r.used = true WHERE r.user.id = :userId AND r.used = false")
+    int revokeAllByUserId(@Param("userId") Long userId);
+
+    interface ConsumedRefreshToken {
+        Long getUserId();
+
+        UUID getFamilyId();
+    }
+
+    interface Session {
+        UUID getId();
+
+        LocalDateTime getRefreshedAt();
+
+        LocalDateTime getExpiresAt();
+    }
 }
@@ -0,0 +1,28 @@
+package com.usermanager.manager.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.usermanager.manager.model.security.RevokedToken;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    // revoking the same token twice (double logout, retries) is a no-op
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO revoked_token (jti, expires_at) VALUES (:jti, :expiresAt)
+            ON CONFLICT (jti) DO NOTHING
+            """, nativeQuery = true)
+    int revoke(@Param("jti") String jti, @Param("expiresAt") LocalDateTime expiresAt);
+
+    List<RevokedToken> findAllByExpiresAtAfter(LocalDateTime now);
+}
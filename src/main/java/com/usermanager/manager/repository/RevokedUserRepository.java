@@ -0,0 +1,31 @@
+package com.usermanager.manager.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.usermanager.manager.model.security.RevokedUser;
+
+@Repository
+public interface RevokedUserRepository extends JpaRepository<RevokedUser, Long> {
+
+    // a later revocation only ever moves the cutoff forward
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO revoked_user (user_id, not_before, expires_at) VALUES (:userId, :notBefore, :expiresAt)
+            ON CONFLICT (user_id) DO UPDATE SET
+                not_before = GREATEST(revoked_user.not_before, EXCLUDED.not_before),
+                expires_at = GREATEST(revoked_user.expires_at, EXCLUDED.expires_at)
+            """, nativeQuery = true)
+    int revoke(@Param("userId") Long userId, @Param("notBefore") LocalDateTime notBefore,
+            @Param("expiresAt") LocalDateTime expiresAt);
+
+    List<RevokedUser> findAllByExpiresAtAfter(LocalDateTime now);
+}
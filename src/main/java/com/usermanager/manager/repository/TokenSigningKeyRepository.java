@@ -0,0 +1,14 @@
+package com.usermanager.manager.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.usermanager.manager.model.security.TokenSigningKey;
+
+@Repository
+public interface TokenSigningKeyRepository extends JpaRepository<TokenSigningKey, String> {
+
+    List<TokenSigningKey> findAllByOrderByCreatedAtAscKidAsc();
+}
@@ -1,7 +1,9 @@
 package com.usermanager.manager.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Repository;
@@ -12,4 +14,7 @@ import com.usermanager.manager.model.user.User;
 public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<UserDetails> findByLogin(String login);
+
+    // keyset page for mail campaigns: an index range scan starting after the last user of the previous page
+    List<User> findByIdGreaterThanAndIsEnabledOrderByIdAsc(Long id, Boolean isEnabled, Limit limit);
 }
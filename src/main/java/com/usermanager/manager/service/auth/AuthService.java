@@ -3,9 +3,9 @@ package com.usermanager.manager.service.auth;
 import java.time.ZonedDateTime;
 import java.util.UUID;
 
-import org.springframework.context.annotation.Lazy;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationEventPublisher;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -19,14 +19,19 @@ import com.usermanager.manager.dto.authentication.AuthenticationDTO;
 import com.usermanager.manager.dto.authentication.PasswordResetDTO;
 import com.usermanager.manager.dto.authentication.TokensDTO;
 import com.usermanager.manager.dto.authentication.UserEmailDTO;
+import com.usermanager.manager.exception.authentication.TokenNotFoundException;
 import com.usermanager.manager.exception.user.UserNotEnabledException;
 import com.usermanager.manager.infra.mail.MailService;
-import com.usermanager.manager.model.security.RefreshToken;
+import com.usermanager.manager.infra.security.revocation.RevokedTokenStore;
+import com.usermanager.manager.model.security.AccessTokenClaims;
 import com.usermanager.manager.model.security.TokenProvider;
 import com.usermanager.manager.model.user.User;
 import com.usermanager.manager.model.verification.enums.TokenType;
+import com.usermanager.manager.service.auth.RefreshTokenService.Rotation;
 import com.usermanager.manager.service.user.UserService;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -35,6 +40,7 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 @Slf4j
 public class AuthService implements UserDetailsService {
+    private static final String LOGIN_STAGE_TIMER = "auth.login.stage";
 
     private final UserService userService;
     private final TokenProvider tokenProvider;
@@ -42,18 +48,24 @@ public class AuthService implements UserDetailsService {
     private final VerificationTokenService verificationService;
     private final MailService mailService;
     private final RefreshTokenService refreshTokenService;
-    private AuthenticationManager authenticationManager;
-
-    public AuthService(UserService userService, @Lazy AuthenticationManager authenticationManager,
-            TokenProvider tokenProvider, PasswordEncoder passwordEncoder,
-            VerificationTokenService verificationService, MailService mailService, RefreshTokenService refreshTokenService) {
+    private final AuthenticationEventPublisher authenticationEventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final RevokedTokenStore revokedTokenStore;
+    private volatile String dummyHash;
+
+    public AuthService(UserService userService, TokenProvider tokenProvider, PasswordEncoder passwordEncoder,
+            VerificationTokenService verificationService, MailService mailService, RefreshTokenService refreshTokenService,
+            AuthenticationEventPublisher authenticationEventPublisher, MeterRegistry meterRegistry,
+            RevokedTokenStore revokedTokenStore) {
         this.userService = userService;
-        this.authenticationManager = authenticationManager;
         this.tokenProvider = tokenProvider;
         this.passwordEncoder = passwordEncoder;
         this.verificationService = verificationService;
         this.mailService = mailService;
         this.refreshTokenService = refreshTokenService;
+        this.authenticationEventPublisher = authenticationEventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.revokedTokenStore = revokedTokenStore;
     }
 
     @Override
@@ -63,44 +75,107 @@ public class AuthService implements UserDetailsService {
 
     }
 
+    // authenticates with a single user lookup and a single password check, instead of
+    // going through the AuthenticationManager, which would load and hash everything again
     @Transactional
     public TokensDTO login(@Valid AuthenticationDTO data) {
         log.info("login attempt by {}", data.login());
+        var attempt = UsernamePasswordAuthenticationToken.unauthenticated(data.login(), null);
+
+        Timer.Sample stage = Timer.start(meterRegistry);
+        var found = userService.findUserByLoginOptional(data.login());
+        stage = recordLoginStage(stage, "lookup");
+
+        // an unknown login costs one hash and gets the same answer as a wrong password,
+        // so neither the response nor its timing tells whether the account exists
+        if (found.isEmpty()) {
+            passwordEncoder.matches(data.password(), dummyHash());
+            recordLoginStage(stage, "hash");
+            var exception = new BadCredentialsException("Bad credentials: verify login or password.");
+            authenticationEventPublisher.publishAuthenticationFailure(exception, attempt);
+            throw exception;
+        }
+        var user = (User) found.get();
 
-        var user = userService.findUserByLogin(data.login());
-        
         if (!user.isEnabled()) {
             log.info("user {} not enabled. unable to login", data.login());
+            authenticationEventPublisher.publishAuthenticationFailure(
+                    new DisabledException("User is disabled"), attempt);
             throw new UserNotEnabledException("Please activate the email " + user.getLogin());
         }
 
-        var usernamePassword = new UsernamePasswordAuthenticationToken(data.login(), data.password());
+        boolean passwordMatches = passwordEncoder.matches(data.password(), user.getPassword());
+        stage = recordLoginStage(stage, "hash");
+
+        if (!passwordMatches) {
+            var exception = new BadCredentialsException("Bad credentials: verify login or password.");
+            authenticationEventPublisher.publishAuthenticationFailure(exception, attempt);
+            throw exception;
+        }
 
-        if (!passwordEncoder.matches(data.password(), user.getPassword())) {
-            throw new BadCredentialsException("Bad credentials: verify login or password.");
+        // stored hashes with an outdated algorithm or cost are upgraded while the raw password is at hand
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user.setPassword(passwordEncoder.encode(data.password()));
+            userService.saveUser(user);
+            stage = recordLoginStage(stage, "rehash");
+            log.info("user {} password hash upgraded", data.login());
         }
 
-        Authentication auth = authenticationManager.authenticate(usernamePassword);
+        Authentication auth = UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+        authenticationEventPublisher.publishAuthenticationSuccess(auth);
         log.info("user {} sucessfully authenticated", data.login());
-        String acessToken =  tokenProvider.generateToken((User) auth.getPrincipal());
+
+        String acessToken =  tokenProvider.generateToken(user);
+        stage = recordLoginStage(stage, "token");
         String refreshToken = refreshTokenService.createRefreshToken(user);
+        recordLoginStage(stage, "refresh");
         log.info("user {} sucessfully generated refresh token", data.login());
         return new TokensDTO(acessToken, refreshToken);
     }
 
-    @Transactional
+    // hashed on the first unknown login rather than at startup, with the current encoding so that checking
+    // against it costs what checking a stored password does
+    private String dummyHash() {
+        String hash = dummyHash;
+        if (hash == null) {
+            hash = passwordEncoder.encode(UUID.randomUUID().toString());
+            dummyHash = hash;
+        }
+        return hash;
+    }
+
+    // not transactional here: the rotation commits on its own so a detected reuse keeps the family revoked
     public TokensDTO refreshToken(@NotBlank String token) {
-        log.info("refresh token attempt by {}", token);
-        RefreshToken refreshToken = refreshTokenService.findByToken(token);
+        log.info("refresh token attempt");
+        Rotation rotation = refreshTokenService.rotate(token);
 
-        String accessToken = tokenProvider.generateToken(refreshToken.getUser());
-        String newRefreshToken = refreshTokenService.createRefreshToken(refreshToken.getUser());
+        String accessToken = tokenProvider.generateToken(rotation.user());
+        log.info("user {} sucessfully generated refresh token", rotation.user().getLogin());
+        return new TokensDTO(accessToken, rotation.refreshToken());
+    }
 
-        refreshTokenService.invalidateToken(token);
-        log.info("user {} sucessfully generated refresh token", refreshToken.getUser().getLogin());
-        return new TokensDTO(accessToken, newRefreshToken);
+    // the access token is denylisted until its exp and the refresh token is consumed, which ends the session;
+    // an already consumed or unknown refresh token does not fail the logout
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null && !accessToken.isBlank()) {
+            AccessTokenClaims claims = tokenProvider.validateAccessToken(accessToken);
+            revokedTokenStore.revoke(claims.tokenId(), claims.expiresAt());
+            log.info("user {} logged out", claims.login());
+        }
+
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            try {
+                refreshTokenService.invalidateToken(refreshToken);
+            } catch (TokenNotFoundException e) {
+                log.debug("logout with an unknown or already used refresh token");
+            }
+        }
     }
 
+    private Timer.Sample recordLoginStage(Timer.Sample sample, String stage) {
+        sample.stop(meterRegistry.timer(LOGIN_STAGE_TIMER, "stage", stage));
+        return Timer.start(meterRegistry);
+    }
 
     @Transactional
     public boolean sendActivationCode(@Email @NotBlank String email) {
@@ -137,6 +212,7 @@ public class AuthService implements UserDetailsService {
         // Updates password and saves it
         user.setPassword(passwordEncoder.encode(data.newPassword()));
         userService.saveUser(user);
+        refreshTokenService.invalidateUser(user);
         log.info("user {} has changed password", user.getLogin());
 
         // Updates verificationToken to set it as activated/enabled
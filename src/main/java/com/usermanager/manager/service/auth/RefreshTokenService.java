@@ -1,74 +1,178 @@
 package com.usermanager.manager.service.auth;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.usermanager.manager.dto.user.SessionDTO;
+import com.usermanager.manager.dto.user.SessionPageDTO;
 import com.usermanager.manager.exception.authentication.TokenInvalidException;
 import com.usermanager.manager.exception.authentication.TokenNotFoundException;
+import com.usermanager.manager.exception.user.UserNotEnabledException;
+import com.usermanager.manager.exception.user.UserNotFoundException;
+import com.usermanager.manager.infra.security.revocation.RevokedTokenStore;
+import com.usermanager.manager.infra.security.token.OpaqueTokenGenerator;
+import com.usermanager.manager.infra.security.token.TokenDigest;
 import com.usermanager.manager.model.security.RefreshToken;
 import com.usermanager.manager.model.security.TokenProvider;
+import com.usermanager.manager.model.security.UserInvalidationEvent;
 import com.usermanager.manager.model.user.User;
 import com.usermanager.manager.repository.RefreshTokenRepository;
+import com.usermanager.manager.repository.RefreshTokenRepository.ConsumedRefreshToken;
+import com.usermanager.manager.repository.RefreshTokenRepository.Session;
+import com.usermanager.manager.repository.UserRepository;
 
 import lombok.extern.slf4j.Slf4j;
 
 @Service
 @Slf4j
 public class RefreshTokenService {
+    static final String FORMAT_JWT = "jwt";
+    static final int MAX_SESSION_PAGE_SIZE = 100;
+
     @Value("${api.security.token.refresh.expiration}")
     private long expirationTime;
+    // refresh tokens are only ever looked up by digest, so by default they are random values rather than signed JWTs
+    @Value("${api.security.token.refresh.format:opaque}")
+    private String format;
+    // oldest sessions are evicted past this many live ones per user, 0 disables the cap
+    @Value("${api.security.token.refresh.max-sessions:10}")
+    private int maxSessions;
     private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
     private final TokenProvider tokenProvider;
+    private final OpaqueTokenGenerator opaqueTokenGenerator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RevokedTokenStore revokedTokenStore;
 
-    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, TokenProvider tokenProvider) {
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, UserRepository userRepository,
+            TokenProvider tokenProvider, OpaqueTokenGenerator opaqueTokenGenerator,
+            ApplicationEventPublisher eventPublisher, RevokedTokenStore revokedTokenStore) {
         this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
         this.tokenProvider = tokenProvider;
+        this.opaqueTokenGenerator = opaqueTokenGenerator;
+        this.eventPublisher = eventPublisher;
+        this.revokedTokenStore = revokedTokenStore;
+    }
+
+    public record Rotation(User user, String refreshToken) {
     }
 
+    // a login starts a new family, every rotation of it keeps the same family id
     @Transactional
     public String createRefreshToken(User user) {
-        String token = tokenProvider.generateToken(user, expirationTime);
-        if (token == null) {
-            throw new TokenNotFoundException("Failed to generate refresh token");
-        }
+        return issue(user, UUID.randomUUID());
+    }
 
-        RefreshToken refreshToken = new RefreshToken(user, token);
+    // the token is consumed by one conditional update; presenting an already used token again
+    // means it leaked, so the whole family is revoked and that revocation must survive the exception
+    @Transactional(noRollbackFor = TokenInvalidException.class)
+    public Rotation rotate(String token) {
+        String tokenHash = TokenDigest.sha256Hex(token);
+        ConsumedRefreshToken consumed = refreshTokenRepository.consume(tokenHash, LocalDateTime.now())
+                .orElseThrow(() -> rejected(tokenHash));
+
+        User user = userRepository.findById(consumed.getUserId()).orElseThrow(
+                () -> new UserNotFoundException("User not found"));
+        if (!user.isEnabled()) {
+            throw new UserNotEnabledException(user.getLogin());
+        }
 
-        refreshTokenRepository.save(refreshToken);
-        return token;
+        return new Rotation(user, issue(user, consumed.getFamilyId()));
     }
 
     @Transactional
     public boolean invalidateToken(String token) {
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(token).orElseThrow(
-                () -> new TokenNotFoundException("Refresh Token not found"));
-
-        refreshToken.setUsed(true);
-        refreshTokenRepository.save(refreshToken);
+        if (refreshTokenRepository.markUsed(TokenDigest.sha256Hex(token)) == 0) {
+            throw new TokenNotFoundException("Refresh Token not found");
+        }
         return true;
     }
 
-    public boolean existsByToken(String token) {
-        return refreshTokenRepository.existsByToken(token);
+    @Transactional(readOnly = true)
+    public SessionPageDTO listSessions(Long userId, String cursor, int limit) {
+        int pageSize = Math.clamp(limit, 1, MAX_SESSION_PAGE_SIZE);
+        LocalDateTime now = LocalDateTime.now();
+        List<Session> sessions;
+        if (cursor == null || cursor.isBlank()) {
+            sessions = refreshTokenRepository.findSessions(userId, now, pageSize);
+        } else {
+            SessionCursor after = SessionCursor.decode(cursor);
+            sessions = refreshTokenRepository.findSessionsAfter(userId, now, after.refreshedAt(), after.id(),
+                    pageSize);
+        }
+
+        List<SessionDTO> page = sessions.stream()
+                .map(session -> new SessionDTO(session.getId(), session.getRefreshedAt(), session.getExpiresAt()))
+                .toList();
+        String nextCursor = page.size() < pageSize ? null : SessionCursor.encode(page.get(page.size() - 1));
+        return new SessionPageDTO(page, nextCursor);
     }
 
     @Transactional
-    public RefreshToken findByToken(String token) {
-        var refreshToken = refreshTokenRepository.findByToken(token).orElseThrow(
-                () -> new TokenNotFoundException("Refresh Token not found"));
+    public void revokeSession(Long userId, UUID sessionId) {
+        if (refreshTokenRepository.revokeFamily(userId, sessionId) == 0) {
+            throw new TokenNotFoundException("Session not found");
+        }
+    }
 
-        if (Boolean.TRUE.equals(refreshToken.getUsed())) {
-            log.warn("Attempt to use an already used refresh token for user: {}", refreshToken.getUser().getLogin());
-            throw new TokenInvalidException("Refresh Token already used. Please login again");
+    @Transactional
+    public int revokeAllSessions(Long userId) {
+        return refreshTokenRepository.revokeAllByUserId(userId);
+    }
+
+    // one set-based update for every refresh token of the user, joined to the caller's transaction;
+    // the access tokens already issued are cut off too, a stateless request never reads the user row.
+    // cached authentications are dropped once it commits
+    @Transactional
+    public void invalidateUser(User user) {
+        int revoked = refreshTokenRepository.revokeAllByUserId(user.getId());
+        revokedTokenStore.revokeUser(user.getId());
+        eventPublisher.publishEvent(new UserInvalidationEvent(user.getLogin()));
+        log.info("user {} invalidated, {} refresh tokens revoked", user.getLogin(), revoked);
+    }
+
+    public boolean existsByToken(String token) {
+        return refreshTokenRepository.existsByTokenHash(TokenDigest.sha256Hex(token));
+    }
+
+    private String issue(User user, UUID familyId) {
+        String token = FORMAT_JWT.equalsIgnoreCase(format)
+                ? tokenProvider.generateToken(user, expirationTime)
+                : opaqueTokenGenerator.generate();
+        if (token == null) {
+            throw new TokenNotFoundException("Failed to generate refresh token");
+        }
+
+        // only the digest is stored, a leaked table does not yield usable tokens
+        LocalDateTime now = LocalDateTime.now();
+        long evicted = refreshTokenRepository.insertEvictingOldest(user.getId(), TokenDigest.sha256Hex(token),
+                familyId, now, now.plusMinutes(expirationTime), maxSessions);
+        if (evicted > 0) {
+            log.info("user id {} reached {} sessions, evicted {} oldest", user.getId(), maxSessions, evicted);
         }
+        return token;
+    }
 
-        if (refreshToken.getExpiresAt().isBefore(LocalDateTime.now())) {
-            throw new TokenInvalidException("Refresh Token expired");
-        }   
+    private RuntimeException rejected(String tokenHash) {
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(tokenHash).orElse(null);
+        if (refreshToken == null) {
+            return new TokenNotFoundException("Refresh Token not found");
+        }
+
+        if (Boolean.TRUE.equals(refreshToken.getUsed())) {
+            int revoked = refreshTokenRepository.revokeFamily(refreshToken.getFamilyId());
+            log.warn("reuse of a refresh token detected for user id {}, revoked {} tokens of its family",
+                    refreshToken.getUser().getId(), revoked);
+            return new TokenInvalidException("Refresh Token already used. Please login again");
+        }
 
-        return refreshToken;
+        return new TokenInvalidException("Refresh Token expired");
     }
 }
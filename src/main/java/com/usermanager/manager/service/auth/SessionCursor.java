@@ -0,0 +1,31 @@
+package com.usermanager.manager.service.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+import com.usermanager.manager.dto.user.SessionDTO;
+import com.usermanager.manager.exception.authentication.InvalidSessionCursorException;
+
+// keyset position in the session listing: the (refreshedAt, id) of the last session of the previous page
+record SessionCursor(LocalDateTime refreshedAt, UUID id) {
+    private static final String SEPARATOR = "|";
+
+    static String encode(SessionDTO last) {
+        String position = last.refreshedAt() + SEPARATOR + last.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static SessionCursor decode(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf(SEPARATOR);
+            return new SessionCursor(LocalDateTime.parse(position.substring(0, separator)),
+                    UUID.fromString(position.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidSessionCursorException("Invalid session cursor");
+        }
+    }
+}
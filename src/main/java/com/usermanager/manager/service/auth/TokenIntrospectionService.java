@@ -0,0 +1,121 @@
+package com.usermanager.manager.service.auth;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.usermanager.manager.dto.authentication.TokenIntrospectionDTO;
+import com.usermanager.manager.exception.authentication.IntrospectionBatchTooLargeException;
+import com.usermanager.manager.exception.authentication.TokenInvalid;
+import com.usermanager.manager.model.security.AccessTokenClaims;
+import com.usermanager.manager.model.security.TokenProvider;
+import com.usermanager.manager.model.security.TokenRevocationChecker;
+
+// lets a gateway validate the tokens of many in-flight requests with one call; the batch is split in
+// one chunk per verification thread, the first chunk is verified on the request thread itself
+@Service
+public class TokenIntrospectionService {
+    // an HMAC check takes a few microseconds, smaller chunks cost more to hand off than to verify
+    static final int MIN_CHUNK_SIZE = 8;
+
+    private final TokenProvider tokenProvider;
+    private final ObjectProvider<TokenRevocationChecker> revocationChecker;
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final int maxBatchSize;
+
+    public TokenIntrospectionService(TokenProvider tokenProvider,
+            ObjectProvider<TokenRevocationChecker> revocationChecker,
+            @Qualifier("tokenVerificationExecutor") ThreadPoolExecutor executor,
+            @Value("${api.security.token.introspection.max-batch-size:100}") int maxBatchSize) {
+        this.tokenProvider = tokenProvider;
+        this.revocationChecker = revocationChecker;
+        this.executor = executor;
+        this.parallelism = executor.getMaximumPoolSize();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public List<TokenIntrospectionDTO> introspect(List<String> tokens) {
+        if (tokens.size() > maxBatchSize) {
+            throw new IntrospectionBatchTooLargeException(
+                    "At most " + maxBatchSize + " tokens can be introspected per request");
+        }
+
+        TokenRevocationChecker checker = revocationChecker.getIfAvailable();
+        int chunks = Math.min(parallelism, tokens.size() / MIN_CHUNK_SIZE);
+        if (chunks <= 1) {
+            return verifyAll(tokens, checker);
+        }
+
+        int chunkSize = (tokens.size() + chunks - 1) / chunks;
+        List<Future<List<TokenIntrospectionDTO>>> futures = new ArrayList<>(chunks - 1);
+        for (int from = chunkSize; from < tokens.size(); from += chunkSize) {
+            List<String> chunk = tokens.subList(from, Math.min(from + chunkSize, tokens.size()));
+            futures.add(executor.submit(() -> verifyAll(chunk, checker)));
+        }
+
+        List<TokenIntrospectionDTO> results = new ArrayList<>(tokens.size());
+        results.addAll(verifyAll(tokens.subList(0, chunkSize), checker));
+        for (Future<List<TokenIntrospectionDTO>> future : futures) {
+            results.addAll(await(future));
+        }
+        return results;
+    }
+
+    public TokenIntrospectionDTO introspect(String token) {
+        return verify(token, revocationChecker.getIfAvailable());
+    }
+
+    private List<TokenIntrospectionDTO> verifyAll(List<String> tokens, TokenRevocationChecker checker) {
+        List<TokenIntrospectionDTO> results = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            results.add(verify(token, checker));
+        }
+        return results;
+    }
+
+    // the same checks SecurityFilter applies to a stateless request: signature, expiry, enabled claim, denylist
+    private TokenIntrospectionDTO verify(String token, TokenRevocationChecker checker) {
+        if (token == null || token.isBlank()) {
+            return TokenIntrospectionDTO.inactive();
+        }
+
+        AccessTokenClaims claims;
+        try {
+            claims = tokenProvider.validateAccessToken(token);
+        } catch (TokenInvalid e) {
+            return TokenIntrospectionDTO.inactive();
+        }
+
+        if (!claims.enabled() || (checker != null && checker.isRevoked(claims))) {
+            return TokenIntrospectionDTO.inactive();
+        }
+
+        return new TokenIntrospectionDTO(true, claims.login(), claims.userId(),
+                claims.role() == null ? null : claims.role().name(),
+                claims.expiresAt() == null ? null : claims.expiresAt().getEpochSecond());
+    }
+
+    private static List<TokenIntrospectionDTO> await(Future<List<TokenIntrospectionDTO>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for token verification", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -1,14 +1,18 @@
 package com.usermanager.manager.service.auth;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.usermanager.manager.exception.authentication.TokenInvalid;
 import com.usermanager.manager.exception.authentication.TokenInvalidException;
 import com.usermanager.manager.exception.authentication.TokenNotFoundException;
+import com.usermanager.manager.model.security.UserInvalidationEvent;
 import com.usermanager.manager.model.user.User;
 import com.usermanager.manager.model.verification.VerificationToken;
 import com.usermanager.manager.model.verification.enums.TokenType;
@@ -24,10 +28,13 @@ public class VerificationTokenService {
 
     private final VerificationTokenRepository verificationRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public VerificationTokenService(VerificationTokenRepository tokenRepository, UserRepository userRepository) {
+    public VerificationTokenService(VerificationTokenRepository tokenRepository, UserRepository userRepository,
+            ApplicationEventPublisher eventPublisher) {
         this.verificationRepository = tokenRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -43,6 +50,23 @@ public class VerificationTokenService {
         return verificationRepository.save(verificationToken);   
     }
 
+    // one token per user, returned in the order of users; used by mail campaigns for a whole chunk at once
+    @Transactional
+    public List<VerificationToken> generateVerificationTokens(List<User> users, TokenType tokenType) {
+        var now = ZonedDateTime.now();
+        List<VerificationToken> tokens = new ArrayList<>(users.size());
+        for (User user : users) {
+            tokens.add(VerificationToken.builder()
+                .uuid(UUID.randomUUID())
+                .user(user)
+                .creationDate(now.toInstant())
+                .expirationDate(now.plusHours(24).toInstant())
+                .tokenType(tokenType)
+                .build());
+        }
+        return verificationRepository.saveAll(tokens);
+    }
+
     @Transactional
     public boolean confirmVerificationToken(@NotNull UUID token) {
         // Getting the UUID from String prevents attacks like SQL INJECTION
@@ -58,6 +82,8 @@ public class VerificationTokenService {
         User user = verificationToken.getUser();
         user.setIsEnabled(true);
         userRepository.save(user);
+        // the disabled user may already be cached by a login or activation attempt
+        eventPublisher.publishEvent(new UserInvalidationEvent(user.getLogin()));
 
         // confirms the activation of the verification token
         verificationToken.setActivationDate(ZonedDateTime.now().toInstant());
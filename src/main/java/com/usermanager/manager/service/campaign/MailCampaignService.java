@@ -0,0 +1,249 @@
+package com.usermanager.manager.service.campaign;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.usermanager.manager.dto.admin.MailCampaignDTO;
+import com.usermanager.manager.dto.admin.StartCampaignDTO;
+import com.usermanager.manager.exception.mail.CampaignAlreadyRunningException;
+import com.usermanager.manager.exception.mail.CampaignNotFoundException;
+import com.usermanager.manager.infra.mail.MailService;
+import com.usermanager.manager.model.email.MailCampaign;
+import com.usermanager.manager.model.email.enums.CampaignStatus;
+import com.usermanager.manager.model.email.enums.CampaignType;
+import com.usermanager.manager.model.user.User;
+import com.usermanager.manager.model.verification.VerificationToken;
+import com.usermanager.manager.model.verification.enums.TokenType;
+import com.usermanager.manager.repository.MailCampaignRepository;
+import com.usermanager.manager.repository.UserRepository;
+import com.usermanager.manager.service.auth.VerificationTokenService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// walks the users table in keyset chunks of chunk-size; each chunk loads its users, creates their tokens and
+// outbox mails and advances the campaign checkpoint in a single transaction, so memory stays at one chunk and
+// a campaign resumed on any node continues exactly after the last committed user.
+// rate caps how many campaign mails per second become due: the mails are spread over next_attempt_at and the
+// campaign stays at most one chunk ahead of the clock, so the outbox never holds a campaign-sized backlog
+// in front of registration and password-reset mails
+@Service
+@Slf4j
+public class MailCampaignService {
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<Long, Thread> running = new ConcurrentHashMap<>();
+    private volatile boolean stopping;
+
+    private final MailCampaignRepository campaignRepository;
+    private final UserRepository userRepository;
+    private final VerificationTokenService verificationService;
+    private final MailService mailService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+    private final long nanosPerMail;
+    private final Duration lease;
+
+    public MailCampaignService(MailCampaignRepository campaignRepository, UserRepository userRepository,
+            VerificationTokenService verificationService, MailService mailService,
+            TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+            @Value("${api.mail.campaign.chunk-size:200}") int chunkSize,
+            @Value("${api.mail.campaign.rate:20}") double rate,
+            @Value("${api.mail.campaign.lease:2m}") Duration lease) {
+        this.campaignRepository = campaignRepository;
+        this.userRepository = userRepository;
+        this.verificationService = verificationService;
+        this.mailService = mailService;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+        // 0 disables the limit, every mail is due as soon as it is enqueued
+        this.nanosPerMail = rate > 0 ? (long) (1_000_000_000L / rate) : 0;
+        this.lease = lease;
+    }
+
+    public MailCampaignDTO start(StartCampaignDTO data, String createdBy) {
+        String locale = data.locale() == null ? null : Locale.forLanguageTag(data.locale().replace('_', '-')).toLanguageTag();
+        MailCampaign campaign;
+        try {
+            campaign = campaignRepository.saveAndFlush(new MailCampaign(data.type(), locale, createdBy, nodeId));
+        } catch (DataIntegrityViolationException e) {
+            throw new CampaignAlreadyRunningException("A " + data.type() + " campaign is already running");
+        }
+
+        log.info("mail campaign {} ({}) started by {}", campaign.getId(), campaign.getType(), createdBy);
+        launch(campaign);
+        return toDTO(campaign);
+    }
+
+    public MailCampaignDTO find(Long id) {
+        return campaignRepository.findById(id).map(this::toDTO)
+                .orElseThrow(() -> new CampaignNotFoundException("Campaign not found: " + id));
+    }
+
+    // the owner notices at its next checkpoint and rolls that chunk back; mails already enqueued for the
+    // next seconds still go out
+    public MailCampaignDTO cancel(Long id) {
+        if (campaignRepository.cancel(id, LocalDateTime.now()) > 0) {
+            log.info("mail campaign {} cancelled", id);
+        }
+        return find(id);
+    }
+
+    // picks up campaigns released by a node that shut down, or whose owner stopped checkpointing for a lease
+    @Scheduled(initialDelayString = "${api.mail.campaign.initial-delay:PT10S}",
+            fixedDelayString = "${api.mail.campaign.resume-interval:PT1M}")
+    public void resumeStalled() {
+        while (!stopping) {
+            LocalDateTime now = LocalDateTime.now();
+            var campaign = campaignRepository.claimStalled(nodeId, now, now.minus(lease));
+            if (campaign.isEmpty()) {
+                return;
+            }
+            if (running.containsKey(campaign.get().getId())) {
+                // our own run missed its heartbeat, the claim just renewed it
+                continue;
+            }
+            log.info("resuming mail campaign {} ({}) after user {}", campaign.get().getId(),
+                    campaign.get().getType(), campaign.get().getLastUserId());
+            launch(campaign.get());
+        }
+    }
+
+    // hands running campaigns back so another node resumes them right away; a chunk still in flight
+    // after the wait fails its checkpoint and rolls back
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopping = true;
+        // woken threads remove themselves from running, the snapshot keeps what must be released
+        Map<Long, Thread> campaigns = Map.copyOf(running);
+        campaigns.values().forEach(LockSupport::unpark);
+        for (var entry : campaigns.entrySet()) {
+            entry.getValue().join(Duration.ofSeconds(5));
+            campaignRepository.release(entry.getKey(), nodeId);
+        }
+    }
+
+    private void launch(MailCampaign campaign) {
+        Thread thread = Thread.ofVirtual().name("mail-campaign-" + campaign.getId()).unstarted(() -> run(campaign));
+        running.put(campaign.getId(), thread);
+        thread.start();
+    }
+
+    void run(MailCampaign campaign) {
+        Long id = campaign.getId();
+        Locale locale = campaign.getLocale() == null ? Locale.ROOT : Locale.forLanguageTag(campaign.getLocale());
+        long cursor = campaign.getLastUserId();
+        LocalDateTime sendAt = LocalDateTime.now();
+        try {
+            while (!stopping) {
+                // a campaign that fell behind (resumed after a pause) does not schedule mails in the past
+                LocalDateTime now = LocalDateTime.now();
+                Chunk chunk = enqueueChunk(campaign, locale, cursor, sendAt.isBefore(now) ? now : sendAt);
+                if (chunk == null) {
+                    log.info("mail campaign {} stopped, it was cancelled or taken over", id);
+                    return;
+                }
+                cursor = chunk.lastUserId();
+                sendAt = chunk.nextSendAt();
+                if (chunk.count() < chunkSize) {
+                    campaignRepository.finish(id, nodeId, CampaignStatus.COMPLETED.name(), null, LocalDateTime.now());
+                    log.info("mail campaign {} completed", id);
+                    return;
+                }
+                if (!pace(id, cursor, sendAt)) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("mail campaign {} failed after user {}", id, cursor, e);
+            campaignRepository.finish(id, nodeId, CampaignStatus.FAILED.name(), abbreviate(String.valueOf(e)),
+                    LocalDateTime.now());
+        } finally {
+            running.remove(id);
+        }
+    }
+
+    // null when the checkpoint was refused, the chunk is rolled back
+    private Chunk enqueueChunk(MailCampaign campaign, Locale locale, long cursor, LocalDateTime sendAt) {
+        return transactionTemplate.execute(status -> {
+            CampaignType type = campaign.getType();
+            List<User> users = userRepository.findByIdGreaterThanAndIsEnabledOrderByIdAsc(cursor,
+                    type.targetsEnabledUsers(), Limit.of(chunkSize));
+            if (users.isEmpty()) {
+                return new Chunk(cursor, 0, sendAt);
+            }
+
+            List<VerificationToken> tokens = type == CampaignType.ACTIVATION_REMINDER
+                    ? verificationService.generateVerificationTokens(users, TokenType.EMAIL_VALIDATION)
+                    : List.of();
+            LocalDateTime notBefore = sendAt;
+            for (int i = 0; i < users.size(); i++) {
+                String recipient = users.get(i).getLogin();
+                if (type == CampaignType.ACTIVATION_REMINDER) {
+                    mailService.sendVerificationMail(recipient, tokens.get(i).getUuid().toString(), locale, notBefore);
+                } else {
+                    mailService.sendPolicyNotice(recipient, locale, notBefore);
+                }
+                notBefore = notBefore.plusNanos(nanosPerMail);
+            }
+
+            long lastUserId = users.getLast().getId();
+            if (campaignRepository.checkpoint(campaign.getId(), nodeId, lastUserId, users.size(),
+                    LocalDateTime.now()) == 0) {
+                status.setRollbackOnly();
+                return null;
+            }
+            meterRegistry.counter("mail.campaign.enqueued", "type", type.name()).increment(users.size());
+            return new Chunk(lastUserId, users.size(), notBefore);
+        });
+    }
+
+    // waits until the mails already enqueued are at most one chunk ahead; the wait is cut in slices that
+    // renew the heartbeat, so a slow rate never lets the lease expire. false when the campaign must stop
+    private boolean pace(Long id, long cursor, LocalDateTime sendAt) {
+        Duration ahead = Duration.ofNanos(nanosPerMail * chunkSize);
+        Duration slice = lease.dividedBy(4);
+        while (!stopping) {
+            Duration wait = Duration.between(LocalDateTime.now(), sendAt.minus(ahead));
+            if (wait.isNegative() || wait.isZero()) {
+                return true;
+            }
+            LockSupport.parkNanos((wait.compareTo(slice) < 0 ? wait : slice).toNanos());
+            if (campaignRepository.checkpoint(id, nodeId, cursor, 0, LocalDateTime.now()) == 0) {
+                log.info("mail campaign {} stopped, it was cancelled or taken over", id);
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private MailCampaignDTO toDTO(MailCampaign campaign) {
+        return new MailCampaignDTO(campaign.getId(), campaign.getType(), campaign.getStatus(), campaign.getLocale(),
+                campaign.getEnqueued(), campaign.getLastUserId(), campaign.getLastError(), campaign.getCreatedBy(),
+                campaign.getCreatedAt(), campaign.getFinishedAt());
+    }
+
+    private static String abbreviate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private record Chunk(long lastUserId, int count, LocalDateTime nextSendAt) {
+    }
+}
@@ -3,6 +3,7 @@ package com.usermanager.manager.service.user;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -17,12 +18,15 @@ import com.usermanager.manager.exception.authentication.PasswordFormatNotValidEx
 import com.usermanager.manager.exception.user.UserExistsException;
 import com.usermanager.manager.exception.user.UserNotFoundException;
 import com.usermanager.manager.infra.mail.MailService;
+import com.usermanager.manager.infra.security.cache.UserPrincipalCache;
 import com.usermanager.manager.mappers.UserMapper;
+import com.usermanager.manager.model.security.UserInvalidationEvent;
 import com.usermanager.manager.model.user.User;
 import com.usermanager.manager.model.user.UserRole;
 import com.usermanager.manager.model.verification.VerificationToken;
 import com.usermanager.manager.model.verification.enums.TokenType;
 import com.usermanager.manager.repository.UserRepository;
+import com.usermanager.manager.service.auth.RefreshTokenService;
 import com.usermanager.manager.service.auth.VerificationTokenService;
 
 import jakarta.validation.Valid;
@@ -39,14 +43,22 @@ public class  UserService {
     private final PasswordEncoder passwordEncoder;
     private final VerificationTokenService verificationService;
     private final MailService mailService;
+    private final RefreshTokenService refreshTokenService;
+    private final UserPrincipalCache principalCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     public UserService(UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder,
-            VerificationTokenService verificationService, MailService mailService) {
+            VerificationTokenService verificationService, MailService mailService,
+            RefreshTokenService refreshTokenService, UserPrincipalCache principalCache,
+            ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
         this.verificationService = verificationService;
         this.mailService = mailService;
+        this.refreshTokenService = refreshTokenService;
+        this.principalCache = principalCache;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -93,6 +105,7 @@ public class  UserService {
         savedUser.setPassword(passwordEncoder.encode(dto.password()));
 
         User updatedUser = userRepository.save(savedUser);
+        refreshTokenService.invalidateUser(updatedUser);
         return userMapper.userToUserResponseDTO(updatedUser);
     }
 
@@ -118,6 +131,7 @@ public class  UserService {
 
         userToDelete.setIsEnabled(false);
         userRepository.save(userToDelete);
+        refreshTokenService.invalidateUser(userToDelete);
         return true;
     }
 
@@ -129,20 +143,23 @@ public class  UserService {
 
         userToDelete.setIsEnabled(false);
         userRepository.save(userToDelete);
+        refreshTokenService.invalidateUser(userToDelete);
         return true;
     }
 
+    // e.g. a password hash upgraded at login, the cached copy would keep the old hash until its TTL
     @Transactional
     public void saveUser(@Valid User user) {
         this.userRepository.save(user);
+        eventPublisher.publishEvent(new UserInvalidationEvent(user.getLogin()));
     }
 
     public User findUserByLogin(@NotBlank String login) {
-        return (User) userRepository.findByLogin(login).orElseThrow(
+        return principalCache.get(login, userRepository::findByLogin).orElseThrow(
                 () -> new UserNotFoundException(login));
     }
 
     public Optional<UserDetails> findUserByLoginOptional(@NotBlank String login) {
-        return userRepository.findByLogin(login);
+        return principalCache.get(login, userRepository::findByLogin).map(UserDetails.class::cast);
     }
 }
@@ -0,0 +1,4 @@
+-- serves the keyset paginated session listing and the per-user cap; its user_id prefix still covers the cascade from users
+DROP INDEX idx_refresh_token_user_id;
+
+CREATE INDEX idx_refresh_token_user_sessions ON refresh_token (user_id, created_at, family_id);
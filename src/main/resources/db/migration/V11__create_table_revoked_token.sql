@@ -0,0 +1,8 @@
+-- access tokens revoked before their exp; rows are only needed until then and the in-memory denylist is rebuilt from them at startup
+CREATE TABLE revoked_token (
+    jti VARCHAR(64) PRIMARY KEY,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_revoked_token_expires_at ON revoked_token (expires_at);
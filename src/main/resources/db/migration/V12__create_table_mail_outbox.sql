@@ -0,0 +1,18 @@
+-- mails are written in the transaction that produces them and sent afterwards by MailOutboxDispatcher;
+-- next_attempt_at doubles as the lease of a claimed row, a node that dies mid-send releases it when it passes
+CREATE TABLE mail_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT now(),
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    sent_at TIMESTAMP
+);
+
+-- only pending rows are polled, sent and dead ones stay out of the index
+CREATE INDEX idx_mail_outbox_pending ON mail_outbox (next_attempt_at) WHERE status = 'PENDING';
+CREATE INDEX idx_mail_outbox_created_at ON mail_outbox (created_at);
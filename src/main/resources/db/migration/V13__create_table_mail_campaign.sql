@@ -0,0 +1,23 @@
+-- bulk mailings started by an admin. last_user_id is the keyset checkpoint: each chunk of users advances it
+-- in the transaction that writes the chunk's verification tokens and outbox mails, so a resumed campaign
+-- never mails a user twice. owner and heartbeat_at make a node's claim expire if it dies mid-run
+CREATE TABLE mail_campaign (
+    id BIGSERIAL PRIMARY KEY,
+    type VARCHAR(32) NOT NULL,
+    locale VARCHAR(35),
+    status VARCHAR(16) NOT NULL DEFAULT 'RUNNING',
+    last_user_id BIGINT NOT NULL DEFAULT 0,
+    enqueued BIGINT NOT NULL DEFAULT 0,
+    owner VARCHAR(64),
+    heartbeat_at TIMESTAMP NOT NULL DEFAULT now(),
+    last_error VARCHAR(1000),
+    created_by VARCHAR(255),
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    finished_at TIMESTAMP
+);
+
+-- at most one running campaign per type, starting it twice is rejected
+CREATE UNIQUE INDEX idx_mail_campaign_running_type ON mail_campaign (type) WHERE status = 'RUNNING';
+
+-- activation reminders walk only the users still waiting for confirmation
+CREATE INDEX idx_users_not_enabled ON users (id) WHERE is_enabled = false;
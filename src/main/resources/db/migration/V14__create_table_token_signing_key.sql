@@ -0,0 +1,11 @@
+-- signing keys rotated through the admin API. every node rebuilds its key ring from the configured keys
+-- followed by these rows, oldest first, so a rotation reaches the whole cluster and survives restarts.
+-- the rows are key material: reading this table is as sensitive as reading the configured secrets
+CREATE TABLE token_signing_key (
+    kid VARCHAR(64) PRIMARY KEY,
+    algorithm VARCHAR(8) NOT NULL,
+    secret VARCHAR(512),
+    private_key TEXT,
+    public_key TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT now()
+);
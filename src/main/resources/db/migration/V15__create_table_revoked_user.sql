@@ -0,0 +1,9 @@
+-- per-user cutoff: access tokens issued before not_before are rejected, e.g. after a password reset or a disable.
+-- rows are only needed until the last token issued before the cutoff has expired
+CREATE TABLE revoked_user (
+    user_id BIGINT PRIMARY KEY,
+    not_before TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_revoked_user_expires_at ON revoked_user (expires_at);
@@ -0,0 +1,10 @@
+-- stored rotations now apply only on top of the configured key they were made from (configured_kid), so
+-- changing the configured secret or EC key makes it active again instead of being overridden by old rows.
+-- secret and private_key hold AES-GCM ciphertext from now on; the rows written before held them in plain
+-- text and are dropped: nodes fall back to the configured key, and clients whose access token was signed
+-- with a dropped key get a new one through their refresh token
+DELETE FROM token_signing_key;
+
+ALTER TABLE token_signing_key
+    ALTER COLUMN secret TYPE TEXT,
+    ADD COLUMN configured_kid VARCHAR(64) NOT NULL;
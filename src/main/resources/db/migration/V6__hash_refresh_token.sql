@@ -0,0 +1,17 @@
+-- refresh tokens are looked up by a fixed-width SHA-256 digest instead of the raw JWT
+ALTER TABLE refresh_token ADD COLUMN token_hash VARCHAR(64);
+
+-- refresh JWTs issued in the same second for the same user were byte-identical
+DELETE FROM refresh_token a
+    USING refresh_token b
+    WHERE a.token = b.token
+      AND a.ctid < b.ctid;
+
+UPDATE refresh_token SET token_hash = encode(sha256(convert_to(token, 'UTF8')), 'hex');
+
+ALTER TABLE refresh_token ALTER COLUMN token_hash SET NOT NULL;
+ALTER TABLE refresh_token DROP COLUMN token;
+
+CREATE UNIQUE INDEX idx_refresh_token_token_hash ON refresh_token (token_hash);
+CREATE INDEX idx_refresh_token_user_id ON refresh_token (user_id);
+CREATE INDEX idx_refresh_token_expires_at ON refresh_token (expires_at);
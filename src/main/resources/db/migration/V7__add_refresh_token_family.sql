@@ -0,0 +1,8 @@
+-- every refresh token belongs to the family started by the login that issued the first one
+ALTER TABLE refresh_token ADD COLUMN family_id UUID;
+
+UPDATE refresh_token SET family_id = id;
+
+ALTER TABLE refresh_token ALTER COLUMN family_id SET NOT NULL;
+
+CREATE INDEX idx_refresh_token_family_id ON refresh_token (family_id);
@@ -0,0 +1 @@
+CREATE INDEX idx_verification_token_expiration_date ON verification_token (expiration_date);
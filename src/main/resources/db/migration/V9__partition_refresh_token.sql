@@ -0,0 +1,44 @@
+-- refresh_token becomes range partitioned by week on expires_at, so expired weeks are dropped instead of deleted
+ALTER TABLE refresh_token RENAME TO refresh_token_unpartitioned;
+ALTER TABLE refresh_token_unpartitioned RENAME CONSTRAINT refresh_token_pkey TO refresh_token_unpartitioned_pkey;
+ALTER TABLE refresh_token_unpartitioned RENAME CONSTRAINT refresh_token_user_id_fkey TO refresh_token_unpartitioned_user_id_fkey;
+DROP INDEX idx_refresh_token_token_hash;
+DROP INDEX idx_refresh_token_user_id;
+DROP INDEX idx_refresh_token_expires_at;
+DROP INDEX idx_refresh_token_family_id;
+
+CREATE TABLE refresh_token (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    token_hash VARCHAR(64) NOT NULL,
+    family_id UUID NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    expires_at TIMESTAMP NOT NULL,
+    used BOOLEAN NOT NULL DEFAULT FALSE,
+    PRIMARY KEY (id, expires_at)
+) PARTITION BY RANGE (expires_at);
+
+-- catches rows outside the created weeks until the maintenance job moves them into their partition
+CREATE TABLE refresh_token_default PARTITION OF refresh_token DEFAULT;
+
+DO $$
+DECLARE
+    week_start TIMESTAMP := date_trunc('week', NOW()) - INTERVAL '1 week';
+BEGIN
+    WHILE week_start < date_trunc('week', NOW()) + INTERVAL '5 weeks' LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF refresh_token FOR VALUES FROM (%L) TO (%L)',
+            'refresh_token_p' || to_char(week_start, 'YYYYMMDD'), week_start, week_start + INTERVAL '1 week');
+        week_start := week_start + INTERVAL '1 week';
+    END LOOP;
+END $$;
+
+CREATE UNIQUE INDEX idx_refresh_token_token_hash ON refresh_token (token_hash, expires_at);
+CREATE INDEX idx_refresh_token_user_id ON refresh_token (user_id);
+CREATE INDEX idx_refresh_token_family_id ON refresh_token (family_id);
+
+INSERT INTO refresh_token (id, user_id, token_hash, family_id, created_at, expires_at, used)
+SELECT id, user_id, token_hash, family_id, COALESCE(created_at, NOW()), expires_at, COALESCE(used, FALSE)
+FROM refresh_token_unpartitioned
+WHERE user_id IS NOT NULL;
+
+DROP TABLE refresh_token_unpartitioned;
@@ -0,0 +1,95 @@
+package com.usermanager.manager.controller;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.usermanager.manager.infra.config.SecurityConfigurations;
+import com.usermanager.manager.infra.security.cache.AuthenticationCache;
+import com.usermanager.manager.infra.security.cache.UserPrincipalCache;
+import com.usermanager.manager.infra.security.password.PasswordEncoderCalibrator;
+import com.usermanager.manager.model.security.TokenProvider;
+import com.usermanager.manager.repository.UserRepository;
+import com.usermanager.manager.service.auth.AuthService;
+import com.usermanager.manager.service.auth.TokenIntrospectionService;
+import com.usermanager.manager.service.auth.VerificationTokenService;
+import com.usermanager.manager.service.user.UserService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// the real filter chain in front of AuthController, everything behind it is mocked
+@WebMvcTest(AuthController.class)
+@Import({ SecurityConfigurations.class, SimpleMeterRegistry.class })
+class AuthControllerSecurityTest {
+    private static final String INTROSPECT = "/api/auth/token/introspect";
+    private static final String BODY = "{\"tokens\": [\"token\"]}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AuthService authService;
+
+    @MockitoBean
+    private UserService userService;
+
+    @MockitoBean
+    private VerificationTokenService verificationService;
+
+    @MockitoBean
+    private TokenProvider tokenProvider;
+
+    @MockitoBean
+    private TokenIntrospectionService introspectionService;
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private AuthenticationCache authenticationCache;
+
+    @MockitoBean
+    private UserPrincipalCache principalCache;
+
+    @MockitoBean
+    private PasswordEncoderCalibrator calibrator;
+
+    @Test
+    void introspect_Anonymous_IsUnauthorized() throws Exception {
+        mockMvc.perform(post(INTROSPECT).contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(introspectionService);
+    }
+
+    @Test
+    void introspect_NonAdmin_IsRejected() throws Exception {
+        mockMvc.perform(post(INTROSPECT).with(user("user@example.com").roles("USER"))
+                .contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(introspectionService);
+    }
+
+    @Test
+    void introspect_Admin_IsServed() throws Exception {
+        when(introspectionService.introspect(anyList())).thenReturn(List.of());
+
+        mockMvc.perform(post(INTROSPECT).with(user("admin@example.com").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,99 @@
+package com.usermanager.manager.infra.grpc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.usermanager.manager.dto.authentication.TokenIntrospectionDTO;
+import com.usermanager.manager.grpc.TokenValidationGrpc;
+import com.usermanager.manager.grpc.ValidateTokenRequest;
+import com.usermanager.manager.repository.UserRepository;
+import com.usermanager.manager.service.auth.TokenIntrospectionService;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.MetadataUtils;
+
+class GrpcAuthenticationInterceptorTest {
+    private static final String CREDENTIAL = "internal-credential";
+
+    private TokenIntrospectionService introspectionService;
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        introspectionService = mock(TokenIntrospectionService.class);
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).directExecutor()
+                .addService(ServerInterceptors.intercept(
+                        new TokenValidationGrpcService(introspectionService, mock(UserRepository.class)),
+                        new GrpcAuthenticationInterceptor(CREDENTIAL)))
+                .build().start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void validateToken_WithoutCredential_IsUnauthenticated() {
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class,
+                () -> TokenValidationGrpc.newBlockingStub(channel).validateToken(request()));
+
+        assertEquals(Status.Code.UNAUTHENTICATED, exception.getStatus().getCode());
+        verifyNoInteractions(introspectionService);
+    }
+
+    @Test
+    void validateToken_WrongCredential_IsUnauthenticated() {
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class,
+                () -> stub("Bearer other-credential").validateToken(request()));
+
+        assertEquals(Status.Code.UNAUTHENTICATED, exception.getStatus().getCode());
+        verifyNoInteractions(introspectionService);
+    }
+
+    @Test
+    void validateToken_WithCredential_ReachesTheService() {
+        when(introspectionService.introspect(anyString()))
+                .thenReturn(new TokenIntrospectionDTO(true, "test@example.com", 1L, "USER", 1_800_000_000L));
+
+        assertTrue(stub("Bearer " + CREDENTIAL).validateToken(request()).getActive());
+    }
+
+    @Test
+    void constructor_BlankCredential_RefusesToStart() {
+        assertThrows(IllegalStateException.class, () -> new GrpcAuthenticationInterceptor(""));
+    }
+
+    private TokenValidationGrpc.TokenValidationBlockingStub stub(String authorization) {
+        Metadata headers = new Metadata();
+        headers.put(GrpcAuthenticationInterceptor.AUTHORIZATION, authorization);
+        return TokenValidationGrpc.newBlockingStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+    }
+
+    private static ValidateTokenRequest request() {
+        return ValidateTokenRequest.newBuilder().setToken("valid").build();
+    }
+}
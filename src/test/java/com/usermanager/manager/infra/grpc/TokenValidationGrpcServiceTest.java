@@ -0,0 +1,142 @@
+package com.usermanager.manager.infra.grpc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.usermanager.manager.dto.authentication.TokenIntrospectionDTO;
+import com.usermanager.manager.grpc.GetPrincipalRequest;
+import com.usermanager.manager.grpc.Principal;
+import com.usermanager.manager.grpc.TokenValidationGrpc;
+import com.usermanager.manager.grpc.ValidateTokenRequest;
+import com.usermanager.manager.grpc.ValidateTokenResponse;
+import com.usermanager.manager.model.user.User;
+import com.usermanager.manager.model.user.UserRole;
+import com.usermanager.manager.repository.UserRepository;
+import com.usermanager.manager.service.auth.TokenIntrospectionService;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+
+class TokenValidationGrpcServiceTest {
+
+    private TokenIntrospectionService introspectionService;
+    private UserRepository userRepository;
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        introspectionService = mock(TokenIntrospectionService.class);
+        userRepository = mock(UserRepository.class);
+        when(introspectionService.introspect(anyString())).thenReturn(TokenIntrospectionDTO.inactive());
+        when(introspectionService.introspect("valid"))
+                .thenReturn(new TokenIntrospectionDTO(true, "test@example.com", 1L, "USER", 1_800_000_000L));
+
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).directExecutor()
+                .addService(new TokenValidationGrpcService(introspectionService, userRepository))
+                .build().start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void validateToken_ReturnsClaimsOfActiveToken() {
+        ValidateTokenResponse response = TokenValidationGrpc.newBlockingStub(channel)
+                .validateToken(ValidateTokenRequest.newBuilder().setToken("valid").setCorrelationId("42").build());
+
+        assertTrue(response.getActive());
+        assertEquals("test@example.com", response.getSubject());
+        assertEquals(1L, response.getUserId());
+        assertEquals("USER", response.getRole());
+        assertEquals(1_800_000_000L, response.getExpiresAt());
+        assertEquals("42", response.getCorrelationId());
+    }
+
+    @Test
+    void batchValidate_StreamsOneResponsePerRequestInOrder() throws InterruptedException {
+        List<ValidateTokenResponse> responses = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        StreamObserver<ValidateTokenRequest> requests = TokenValidationGrpc.newStub(channel)
+                .batchValidate(new StreamObserver<>() {
+                    @Override
+                    public void onNext(ValidateTokenResponse response) {
+                        responses.add(response);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        done.countDown();
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        done.countDown();
+                    }
+                });
+
+        for (int i = 0; i < 100; i++) {
+            requests.onNext(ValidateTokenRequest.newBuilder()
+                    .setToken(i % 2 == 0 ? "valid" : "invalid")
+                    .setCorrelationId(String.valueOf(i))
+                    .build());
+        }
+        requests.onCompleted();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(100, responses.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(String.valueOf(i), responses.get(i).getCorrelationId());
+            assertEquals(i % 2 == 0, responses.get(i).getActive());
+        }
+    }
+
+    @Test
+    void getPrincipal_LoadsTheCurrentUser() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(User.builder().id(1L).login("test@example.com")
+                .name("Test").role(UserRole.USER).isEnabled(true).build()));
+
+        Principal principal = TokenValidationGrpc.newBlockingStub(channel)
+                .getPrincipal(GetPrincipalRequest.newBuilder().setToken("valid").build());
+
+        assertEquals(1L, principal.getId());
+        assertEquals("Test", principal.getName());
+        assertTrue(principal.getEnabled());
+    }
+
+    @Test
+    void getPrincipal_InactiveToken_IsUnauthenticated() {
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class,
+                () -> TokenValidationGrpc.newBlockingStub(channel)
+                        .getPrincipal(GetPrincipalRequest.newBuilder().setToken("expired").build()));
+
+        assertEquals(Status.Code.UNAUTHENTICATED, exception.getStatus().getCode());
+        assertFalse(exception.getStatus().getDescription().isBlank());
+    }
+}
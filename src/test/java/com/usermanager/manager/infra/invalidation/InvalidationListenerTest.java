@@ -0,0 +1,119 @@
+package com.usermanager.manager.infra.invalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import com.usermanager.manager.infra.security.cache.AuthenticationCache;
+import com.usermanager.manager.infra.security.cache.UserPrincipalCache;
+import com.usermanager.manager.infra.security.revocation.RevokedTokenStore;
+import com.usermanager.manager.infra.security.token.SigningKeyStore;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class InvalidationListenerTest {
+
+    @Mock
+    private InvalidationPublisher publisher;
+
+    @Mock
+    private AuthenticationCache authenticationCache;
+
+    @Mock
+    private UserPrincipalCache principalCache;
+
+    @Mock
+    private RevokedTokenStore revokedTokenStore;
+
+    @Mock
+    private SigningKeyStore signingKeyStore;
+
+    private SimpleMeterRegistry meterRegistry;
+    private InvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        listener = new InvalidationListener(new DataSourceProperties(), publisher, authenticationCache,
+                principalCache, revokedTokenStore, signingKeyStore, meterRegistry, true, "auth_invalidation",
+                Duration.ofSeconds(30), Duration.ofSeconds(1), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void apply_UserMessage_InvalidatesBothCaches() {
+        when(publisher.nodeId()).thenReturn("local");
+
+        listener.apply(InvalidationMessage.user("remote", "test@example.com").encode());
+
+        verify(authenticationCache).invalidateUser("test@example.com");
+        verify(principalCache).invalidate("test@example.com");
+        assertEquals(1.0, meterRegistry.counter("auth.invalidation.received", "kind", "user").count());
+    }
+
+    @Test
+    void apply_RevokedTokenMessage_AddsToDenylist() {
+        when(publisher.nodeId()).thenReturn("local");
+        Instant expiresAt = Instant.ofEpochSecond(Instant.now().plusSeconds(600).getEpochSecond());
+
+        listener.apply(InvalidationMessage.revokedToken("remote", "jti:with:colons", expiresAt).encode());
+
+        verify(revokedTokenStore).applyRevocation("jti:with:colons", expiresAt);
+    }
+
+    @Test
+    void apply_RevokedUserMessage_CutsOffTheUsersTokens() {
+        when(publisher.nodeId()).thenReturn("local");
+        Instant notBefore = Instant.ofEpochSecond(Instant.now().getEpochSecond());
+
+        listener.apply(InvalidationMessage.revokedUser("remote", 42L, notBefore).encode());
+
+        verify(revokedTokenStore).applyUserRevocation(42L, notBefore);
+        assertEquals(1.0, meterRegistry.counter("auth.invalidation.received", "kind", "revoked_user").count());
+    }
+
+    @Test
+    void apply_SigningKeyMessage_ReloadsTheKeyRing() {
+        when(publisher.nodeId()).thenReturn("local");
+
+        listener.apply(InvalidationMessage.signingKey("remote", "kid-2").encode());
+
+        verify(signingKeyStore).load();
+        assertEquals(1.0, meterRegistry.counter("auth.invalidation.received", "kind", "signing_key").count());
+    }
+
+    @Test
+    void apply_OwnMessage_IsSkipped() {
+        when(publisher.nodeId()).thenReturn("local");
+
+        listener.apply(InvalidationMessage.user("local", "test@example.com").encode());
+
+        verify(authenticationCache, never()).invalidateUser(anyString());
+        verify(principalCache, never()).invalidate(anyString());
+    }
+
+    @Test
+    void apply_MalformedMessage_FlushesEverything() {
+        listener.apply("garbage");
+
+        verify(authenticationCache).invalidateAll();
+        verify(principalCache).invalidateAll();
+        verify(revokedTokenStore).load();
+        verify(signingKeyStore).load();
+        verify(revokedTokenStore, never()).applyRevocation(anyString(), any(Instant.class));
+        assertEquals(1.0, meterRegistry.counter("auth.invalidation.flushes").count());
+    }
+}
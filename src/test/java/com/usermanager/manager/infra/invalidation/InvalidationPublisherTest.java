@@ -0,0 +1,54 @@
+package com.usermanager.manager.infra.invalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+
+import com.usermanager.manager.model.security.TokenRevocationEvent;
+import com.usermanager.manager.model.security.UserInvalidationEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class InvalidationPublisherTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onTokenRevocation_NotifiesTheChannel() throws SQLException {
+        InvalidationPublisher publisher = new InvalidationPublisher(jdbcTemplate, meterRegistry, true, "auth_invalidation");
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(jdbcTemplate.execute(anyString(), any(PreparedStatementCallback.class))).thenAnswer(
+                invocation -> invocation.<PreparedStatementCallback<Boolean>>getArgument(1).doInPreparedStatement(statement));
+
+        publisher.onTokenRevocation(new TokenRevocationEvent("jti", Instant.ofEpochSecond(1_800_000_000L)));
+
+        verify(statement).setString(1, "auth_invalidation");
+        verify(statement).setString(2, publisher.nodeId() + ":r:jti:1800000000");
+        verify(jdbcTemplate).execute(eq("SELECT pg_notify(?, ?)"), any(PreparedStatementCallback.class));
+        assertEquals(1.0, meterRegistry.counter("auth.invalidation.published", "kind", "revoked_token").count());
+    }
+
+    @Test
+    void onUserInvalidation_Disabled_DoesNothing() {
+        InvalidationPublisher publisher = new InvalidationPublisher(jdbcTemplate, meterRegistry, false, "auth_invalidation");
+
+        publisher.onUserInvalidation(new UserInvalidationEvent("test@example.com"));
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
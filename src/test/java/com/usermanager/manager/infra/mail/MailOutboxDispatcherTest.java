@@ -0,0 +1,213 @@
+package com.usermanager.manager.infra.mail;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+
+import com.usermanager.manager.model.email.MailProvider;
+import com.usermanager.manager.repository.MailOutboxRepository;
+import com.usermanager.manager.repository.MailOutboxRepository.ClaimedMail;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class MailOutboxDispatcherTest {
+
+    @Mock
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Mock
+    private MailProvider mailProvider;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void dispatch_SendsClaimedMailsUntilAShortBatch() {
+        when(mailOutboxRepository.claim(any(LocalDateTime.class), any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(mail(1L, 1), mail(2L, 1)), List.of(mail(3L, 1)));
+        when(mailProvider.sendEmail(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        dispatcher(true).dispatch();
+
+        verify(mailOutboxRepository, times(2)).claim(any(LocalDateTime.class), any(LocalDateTime.class), eq(2));
+        verify(mailOutboxRepository, times(3)).markSent(anyLong(), any(LocalDateTime.class));
+        assertEquals(3.0, meterRegistry.counter("mail.outbox.dispatched", "result", "sent").count());
+    }
+
+    @Test
+    void dispatch_FailedSend_IsRetriedWithBackoff() {
+        when(mailOutboxRepository.claim(any(LocalDateTime.class), any(LocalDateTime.class), anyInt()))
+                .thenReturn(List.of(mail(1L, 3)));
+        when(mailProvider.sendEmail(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new MailSendException("connection refused")));
+        LocalDateTime before = LocalDateTime.now();
+
+        dispatcher(true).dispatch();
+
+        // third attempt: 30s doubled twice
+        verify(mailOutboxRepository).markRetry(eq(1L),
+                argThat(next -> !next.isBefore(before.plusMinutes(2)) && next.isBefore(before.plusMinutes(3))),
+                argThat(error -> error.contains("connection refused")));
+        verify(mailOutboxRepository, never()).markSent(anyLong(), any());
+        verify(mailOutboxRepository, never()).markDead(anyLong(), anyString());
+    }
+
+    @Test
+    void dispatch_LastAttemptFails_MovesMailToDead() {
+        when(mailOutboxRepository.claim(any(LocalDateTime.class), any(LocalDateTime.class), anyInt()))
+                .thenReturn(List.of(mail(1L, 5)));
+        when(mailProvider.sendEmail(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new MailSendException("mailbox unavailable")));
+
+        dispatcher(true).dispatch();
+
+        verify(mailOutboxRepository).markDead(eq(1L), argThat(error -> error.contains("mailbox unavailable")));
+        verify(mailOutboxRepository, never()).markRetry(anyLong(), any(), anyString());
+        assertEquals(1.0, meterRegistry.counter("mail.outbox.dispatched", "result", "dead").count());
+    }
+
+    @Test
+    void dispatch_SendOutlivesItsTimeout_KeepsTheClaimUntilTheSendSettles() {
+        when(mailOutboxRepository.claim(any(LocalDateTime.class), any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(mail(1L, 1), mail(2L, 1)), List.of());
+        CompletableFuture<Void> delivered = new CompletableFuture<>();
+        CompletableFuture<Void> refused = new CompletableFuture<>();
+        when(mailProvider.sendEmail(anyString(), anyString(), anyString())).thenReturn(delivered, refused);
+
+        dispatcher(true).dispatch();
+
+        // neither mail is handed back for another attempt while its send may still go through
+        verify(mailOutboxRepository, never()).markRetry(anyLong(), any(), anyString());
+        verify(mailOutboxRepository, never()).release(anyLong(), any());
+        verify(mailOutboxRepository, never()).markSent(anyLong(), any());
+        assertEquals(2.0, meterRegistry.counter("mail.outbox.dispatched", "result", "late").count());
+
+        delivered.complete(null);
+        refused.completeExceptionally(new MailSendException("connection reset"));
+
+        verify(mailOutboxRepository).markSent(eq(1L), any(LocalDateTime.class));
+        verify(mailOutboxRepository).markRetry(eq(2L), any(LocalDateTime.class),
+                argThat(error -> error.contains("connection reset")));
+    }
+
+    // the send waits in the executor queue for longer than the lease set at claim time: the claim must be
+    // renewed rather than run out, or the next poll would claim the mail again and send it twice
+    @Test
+    void dispatch_SendHeldPastTheLease_RenewsTheClaimAndStopsClaiming() {
+        when(mailOutboxRepository.claim(any(LocalDateTime.class), any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(mail(1L, 1)), List.of(mail(2L, 1)));
+        CompletableFuture<Void> held = new CompletableFuture<>();
+        when(mailProvider.sendEmail(anyString(), anyString(), anyString()))
+                .thenReturn(held, CompletableFuture.completedFuture(null));
+        MailOutboxDispatcher dispatcher = dispatcher(true);
+
+        dispatcher.dispatch();
+        LocalDateTime leaseEnd = LocalDateTime.now().plusSeconds(3);
+        // every poll while the send is held renews the claim, however long it stays queued
+        dispatcher.dispatch();
+        dispatcher.dispatch();
+
+        verify(mailOutboxRepository, times(1)).claim(any(LocalDateTime.class), any(LocalDateTime.class), eq(2));
+        verify(mailOutboxRepository, times(3)).extendLease(eq(Set.of(1L)),
+                argThat(until -> until.isAfter(leaseEnd.minusSeconds(1))));
+        verify(mailOutboxRepository, never()).markSent(anyLong(), any());
+
+        held.complete(null);
+        dispatcher.dispatch();
+
+        verify(mailOutboxRepository).markSent(eq(1L), any(LocalDateTime.class));
+        verify(mailOutboxRepository).markSent(eq(2L), any(LocalDateTime.class));
+        verify(mailOutboxRepository, times(3)).extendLease(any(), any());
+    }
+
+    @Test
+    void dispatch_ExecutorFull_ReleasesMailWithoutSpendingAnAttempt() {
+        when(mailOutboxRepository.claim(any(LocalDateTime.class), any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(mail(1L, 1), mail(2L, 1)));
+        when(mailProvider.sendEmail(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null),
+                        CompletableFuture.failedFuture(new RejectedExecutionException()));
+
+        dispatcher(true).dispatch();
+
+        verify(mailOutboxRepository).markSent(eq(1L), any(LocalDateTime.class));
+        verify(mailOutboxRepository).release(eq(2L), any(LocalDateTime.class));
+        verify(mailOutboxRepository, never()).markRetry(anyLong(), any(), anyString());
+        // a full batch would normally be followed by another claim, pushback stops the drain
+        verify(mailOutboxRepository, times(1)).claim(any(LocalDateTime.class), any(LocalDateTime.class), eq(2));
+    }
+
+    @Test
+    void dispatch_Disabled_NeverClaims() {
+        dispatcher(false).dispatch();
+
+        verifyNoInteractions(mailOutboxRepository, mailProvider);
+    }
+
+    @Test
+    void backoff_IsCappedAtTheMaximumDelay() {
+        MailOutboxDispatcher dispatcher = dispatcher(true);
+
+        assertEquals(Duration.ofSeconds(30), dispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(60), dispatcher.backoff(2));
+        assertEquals(Duration.ofMinutes(10), dispatcher.backoff(20));
+    }
+
+    private MailOutboxDispatcher dispatcher(boolean enabled) {
+        return new MailOutboxDispatcher(mailOutboxRepository, mailProvider, meterRegistry, enabled, 2, 5,
+                Duration.ofSeconds(1), Duration.ofSeconds(30), Duration.ofMinutes(10));
+    }
+
+    private static ClaimedMail mail(Long id, int attempts) {
+        return new ClaimedMail() {
+            public Long getId() {
+                return id;
+            }
+
+            public String getRecipient() {
+                return "test@example.com";
+            }
+
+            public String getSubject() {
+                return "Verify your e-mail";
+            }
+
+            public String getBody() {
+                return "body";
+            }
+
+            public int getAttempts() {
+                return attempts;
+            }
+        };
+    }
+}
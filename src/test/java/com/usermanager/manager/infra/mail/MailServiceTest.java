@@ -0,0 +1,90 @@
+package com.usermanager.manager.infra.mail;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.usermanager.manager.infra.mail.template.MailTemplateEngine;
+import com.usermanager.manager.repository.MailOutboxRepository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+// the outbox only holds mails whose transaction committed, which takes a real database to show
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ MailService.class, MailTemplateEngine.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MailServiceTest {
+
+    @Autowired
+    private MailService mailService;
+
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mailOutboxRepository.deleteAll();
+    }
+
+    @Test
+    void sendPolicyNotice_WithoutTransaction_Throws() {
+        assertThrows(IllegalTransactionStateException.class,
+                () -> mailService.sendPolicyNotice("test@example.com", Locale.ENGLISH, LocalDateTime.now()));
+
+        assertEquals(0, mailOutboxRepository.count());
+    }
+
+    @Test
+    void sendVerificationMail_CallerRollsBack_LeavesNoOutboxRow() {
+        transactionTemplate.executeWithoutResult(status -> {
+            mailService.sendVerificationMail("test@example.com", "token", Locale.ENGLISH, LocalDateTime.now());
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, mailOutboxRepository.count());
+    }
+
+    @Test
+    void sendVerificationMail_CallerCommits_WritesTheOutboxRow() {
+        transactionTemplate.executeWithoutResult(status -> mailService.sendVerificationMail("test@example.com",
+                "token", Locale.ENGLISH, LocalDateTime.now()));
+
+        assertEquals(1, mailOutboxRepository.count());
+    }
+
+    @TestConfiguration
+    static class EmbeddedDatabase {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws IOException {
+            return EmbeddedPostgres.start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+            return embeddedPostgres.getPostgresDatabase();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.usermanager.manager.infra.mail;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+class SmtpConnectionPoolTest {
+
+    private GreenMail greenMail;
+    private JavaMailSenderImpl mailSender;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        greenMail = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+        greenMail.start();
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        greenMail.stop();
+    }
+
+    @Test
+    void send_ReusesOneConnectionForManyMessages() throws MessagingException {
+        SmtpConnectionPool pool = pool(100, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 5; i++) {
+            pool.send(message(i));
+        }
+
+        assertEquals(5, greenMail.getReceivedMessages().length);
+        assertEquals(1, meterRegistry.timer("mail.smtp.connect").count());
+        assertEquals(5, meterRegistry.timer("mail.smtp.send").count());
+        assertEquals(1.0, meterRegistry.get("mail.smtp.pool.connections").tag("state", "idle").gauge().value());
+        pool.close();
+    }
+
+    @Test
+    void send_RecyclesConnectionAfterMaxMessages() throws MessagingException {
+        SmtpConnectionPool pool = pool(2, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 5; i++) {
+            pool.send(message(i));
+        }
+
+        assertEquals(5, greenMail.getReceivedMessages().length);
+        assertEquals(3, meterRegistry.timer("mail.smtp.connect").count());
+        assertEquals(2.0, meterRegistry.counter("mail.smtp.pool.closed", "reason", "max-messages").count());
+        pool.close();
+    }
+
+    @Test
+    void evictIdle_ClosesConnectionsPastTheIdleTimeout() throws MessagingException {
+        SmtpConnectionPool pool = pool(100, Duration.ZERO);
+        pool.send(message(0));
+
+        pool.evictIdle();
+        pool.send(message(1));
+
+        assertEquals(2, greenMail.getReceivedMessages().length);
+        assertEquals(1.0, meterRegistry.counter("mail.smtp.pool.closed", "reason", "idle").count());
+        assertEquals(2, meterRegistry.timer("mail.smtp.connect").count());
+        pool.close();
+    }
+
+    // the dead connection is noticed by the NOOP before the mail starts, so it goes out once on a new one
+    @Test
+    void send_PooledConnectionDroppedByServer_SendsOnceOnANewConnection() throws MessagingException {
+        SmtpConnectionPool pool = pool(100, Duration.ofMinutes(1));
+        pool.send(message(0));
+
+        int port = greenMail.getSmtp().getPort();
+        greenMail.stop();
+        greenMail = new GreenMail(new ServerSetup(port, "127.0.0.1", ServerSetup.PROTOCOL_SMTP));
+        greenMail.start();
+        pool.send(message(1));
+
+        assertEquals(1, greenMail.getReceivedMessages().length);
+        assertEquals(1.0, meterRegistry.counter("mail.smtp.pool.closed", "reason", "dropped").count());
+        assertEquals(2, meterRegistry.timer("mail.smtp.connect").count());
+        assertEquals(2, meterRegistry.timer("mail.smtp.send").count());
+        pool.close();
+    }
+
+    private SmtpConnectionPool pool(int maxMessages, Duration idleTimeout) {
+        return new SmtpConnectionPool(mailSender, meterRegistry, 1, maxMessages, idleTimeout, Duration.ofSeconds(5));
+    }
+
+    private MimeMessage message(int index) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message);
+        helper.setTo("user" + index + "@example.com");
+        helper.setFrom("noreply@example.com");
+        helper.setSubject("Verify your e-mail");
+        helper.setText("body " + index, true);
+        return message;
+    }
+}
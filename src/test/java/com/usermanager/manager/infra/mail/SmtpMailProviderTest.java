@@ -0,0 +1,105 @@
+package com.usermanager.manager.infra.mail;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+
+@ExtendWith(MockitoExtension.class)
+class SmtpMailProviderTest {
+
+    @Mock
+    private JavaMailSender javaMailSender;
+
+    @Mock
+    private SmtpConnectionPool connectionPool;
+
+    private ThreadPoolExecutor mailExecutor;
+    private SimpleMeterRegistry meterRegistry;
+    private SmtpMailProvider mailProvider;
+
+    @BeforeEach
+    void setUp() {
+        mailExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+                Thread.ofVirtual().factory(), new ThreadPoolExecutor.AbortPolicy());
+        meterRegistry = new SimpleMeterRegistry();
+        mailProvider = new SmtpMailProvider(javaMailSender, connectionPool, mailExecutor, meterRegistry);
+        ReflectionTestUtils.setField(mailProvider, "sender", "noreply@example.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        mailExecutor.shutdownNow();
+    }
+
+    @Test
+    void sendEmail_SendsThroughThePoolOnTheMailExecutor() throws Exception {
+        when(javaMailSender.createMimeMessage()).thenReturn(new MimeMessage((Session) null));
+
+        mailProvider.sendEmail("test@example.com", "subject", "body").get(5, TimeUnit.SECONDS);
+
+        verify(connectionPool).send(any(MimeMessage.class));
+        assertEquals(1, meterRegistry.timer("mail.delivery", "result", "success").count());
+    }
+
+    @Test
+    void sendEmail_SmtpFailure_CompletesExceptionally() throws MessagingException {
+        when(javaMailSender.createMimeMessage()).thenReturn(new MimeMessage((Session) null));
+        doThrow(new MessagingException("connection refused")).when(connectionPool).send(any(MimeMessage.class));
+
+        CompletableFuture<Void> delivery = mailProvider.sendEmail("test@example.com", "subject", "body");
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> delivery.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(MailSendException.class, e.getCause());
+        assertEquals(1, meterRegistry.timer("mail.delivery", "result", "failure").count());
+    }
+
+    @Test
+    void sendEmail_QueueFull_FailsFastWithRejection() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        when(javaMailSender.createMimeMessage()).thenReturn(new MimeMessage((Session) null));
+        doAnswer(invocation -> {
+            blocked.await();
+            return null;
+        }).when(connectionPool).send(any(MimeMessage.class));
+
+        CompletableFuture<Void> running = mailProvider.sendEmail("a@example.com", "subject", "body");
+        CompletableFuture<Void> queued = mailProvider.sendEmail("b@example.com", "subject", "body");
+        CompletableFuture<Void> rejected = mailProvider.sendEmail("c@example.com", "subject", "body");
+
+        ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        assertEquals(1.0, meterRegistry.counter("mail.delivery.rejected").count());
+
+        blocked.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+    }
+}
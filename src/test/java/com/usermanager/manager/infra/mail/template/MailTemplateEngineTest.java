@@ -0,0 +1,54 @@
+package com.usermanager.manager.infra.mail.template;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class MailTemplateEngineTest {
+
+    private final MailTemplateEngine engine = new MailTemplateEngine("classpath*:mail/templates/*.html");
+
+    @Test
+    void render_UsesTheTranslationForTheRequestedLocale() {
+        RenderedMail mail = engine.render("verification", Locale.of("pt", "BR"), Map.of("link", "http://x/confirm"));
+
+        assertEquals("Confirme seu e-mail", mail.subject());
+        assertTrue(mail.body().contains("<a href=\"http://x/confirm\">"));
+    }
+
+    @Test
+    void render_FallsBackToTheDefaultTemplate() {
+        RenderedMail mail = engine.render("verification", Locale.FRANCE, Map.of("link", "http://x/confirm"));
+
+        assertEquals("Verify your e-mail", mail.subject());
+    }
+
+    @Test
+    void render_EscapesValuesInTheBody() {
+        RenderedMail mail = engine.render("password-reset", Locale.ENGLISH, Map.of("link", "http://x/?a=1&b=\"2\""));
+
+        assertTrue(mail.body().contains("http://x/?a=1&amp;b=&quot;2&quot;"));
+    }
+
+    @Test
+    void render_MissingVariableOrTemplate_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> engine.render("verification", Locale.ENGLISH, Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> engine.render("unknown", Locale.ENGLISH, Map.of()));
+    }
+
+    @Test
+    void compile_SplitsLiteralsAndVariables() {
+        MailTemplate template = MailTemplate.compile("a{{ x }}b{{y}}", "test");
+        StringBuilder out = new StringBuilder();
+
+        template.appendTo(out, Map.of("x", "1", "y", "<2>"), false);
+
+        assertEquals("a1b<2>", out.toString());
+        assertThrows(IllegalStateException.class, () -> MailTemplate.compile("a{{x", "test"));
+    }
+}
@@ -0,0 +1,156 @@
+package com.usermanager.manager.infra.retention;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+class RefreshTokenPartitionMaintenanceTest {
+    private static EmbeddedPostgres postgres;
+    private static DataSource dataSource;
+
+    @BeforeAll
+    static void startDatabase() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        dataSource = postgres.getPostgresDatabase();
+        Flyway.configure().dataSource(dataSource).load().migrate();
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    // must match date_trunc('week', ...) and the names used by the V9 migration
+    @Test
+    void weekOf_StartsOnMonday() {
+        assertEquals(LocalDate.of(2026, 10, 12), RefreshTokenPartitionMaintenance.weekOf(LocalDate.of(2026, 10, 17)));
+        assertEquals(LocalDate.of(2026, 10, 12), RefreshTokenPartitionMaintenance.weekOf(LocalDate.of(2026, 10, 12)));
+    }
+
+    @Test
+    void partitionName_UsesWeekStart() {
+        assertEquals("refresh_token_p20261012",
+                RefreshTokenPartitionMaintenance.partitionName(LocalDate.of(2026, 10, 12)));
+    }
+
+    // V9 creates the weeks up to four ahead, so six ahead makes the job create two
+    @Test
+    void maintain_NewWeek_MovesRowsOutOfDefaultAndAttaches() throws SQLException {
+        LocalDate currentWeek = RefreshTokenPartitionMaintenance.weekOf(LocalDate.now());
+        LocalDate newWeek = currentWeek.plusWeeks(5);
+        String partition = RefreshTokenPartitionMaintenance.partitionName(newWeek);
+        long userId = insertUser();
+        UUID waiting = insertToken(userId, newWeek.atStartOfDay().plusDays(3));
+        UUID beyond = insertToken(userId, currentWeek.plusWeeks(9).atStartOfDay());
+        assertEquals("refresh_token_default", partitionOf(waiting));
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        new RefreshTokenPartitionMaintenance(dataSource, meterRegistry, true, 6, Duration.ofDays(1)).maintain();
+
+        assertTrue(isAttached(partition));
+        assertTrue(isAttached(RefreshTokenPartitionMaintenance.partitionName(currentWeek.plusWeeks(6))));
+        assertEquals(partition, partitionOf(waiting));
+        assertEquals("refresh_token_default", partitionOf(beyond));
+        assertEquals(2, meterRegistry.get("auth.retention.partitions").tag("action", "created").counter().count());
+    }
+
+    @Test
+    void maintain_ExpiredWeek_DropsItWithItsTokens() throws SQLException {
+        LocalDate expiredWeek = RefreshTokenPartitionMaintenance.weekOf(LocalDate.now()).minusWeeks(3);
+        String partition = RefreshTokenPartitionMaintenance.partitionName(expiredWeek);
+        execute("CREATE TABLE " + partition + " PARTITION OF refresh_token FOR VALUES FROM ('"
+                + expiredWeek.atStartOfDay() + "') TO ('" + expiredWeek.plusWeeks(1).atStartOfDay() + "')");
+        UUID expired = insertToken(insertUser(), expiredWeek.atStartOfDay().plusDays(1));
+        assertEquals(partition, partitionOf(expired));
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        new RefreshTokenPartitionMaintenance(dataSource, meterRegistry, true, 4, Duration.ZERO).maintain();
+
+        assertFalse(isAttached(partition));
+        assertNull(partitionOf(expired));
+        assertTrue(isAttached(RefreshTokenPartitionMaintenance.partitionName(
+                RefreshTokenPartitionMaintenance.weekOf(LocalDate.now()))));
+        assertTrue(meterRegistry.get("auth.retention.partitions").tag("action", "dropped").counter().count() >= 1);
+    }
+
+    private static long insertUser() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement insert = connection.prepareStatement(
+                        "INSERT INTO users (name, login, password) VALUES ('test', ?, 'x') RETURNING id")) {
+            insert.setString(1, UUID.randomUUID() + "@test.local");
+            try (ResultSet result = insert.executeQuery()) {
+                result.next();
+                return result.getLong(1);
+            }
+        }
+    }
+
+    private static UUID insertToken(long userId, LocalDateTime expiresAt) throws SQLException {
+        UUID id = UUID.randomUUID();
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement insert = connection.prepareStatement(
+                        "INSERT INTO refresh_token (id, user_id, token_hash, family_id, expires_at) VALUES (?, ?, ?, ?, ?)")) {
+            insert.setObject(1, id);
+            insert.setLong(2, userId);
+            insert.setString(3, id.toString().replace("-", ""));
+            insert.setObject(4, UUID.randomUUID());
+            insert.setObject(5, expiresAt);
+            insert.executeUpdate();
+        }
+        return id;
+    }
+
+    // null once the row is gone
+    private static String partitionOf(UUID tokenId) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement query = connection.prepareStatement(
+                        "SELECT tableoid::regclass::text FROM refresh_token WHERE id = ?")) {
+            query.setObject(1, tokenId);
+            try (ResultSet result = query.executeQuery()) {
+                return result.next() ? result.getString(1) : null;
+            }
+        }
+    }
+
+    private static boolean isAttached(String partition) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement query = connection.prepareStatement("""
+                        SELECT 1 FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                        WHERE i.inhparent = 'refresh_token'::regclass AND c.relname = ?
+                        """)) {
+            query.setString(1, partition);
+            try (ResultSet result = query.executeQuery()) {
+                return result.next();
+            }
+        }
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.usermanager.manager.infra.retention;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TokenRetentionJobTest {
+
+    private DataSource dataSource;
+    private Connection connection;
+    private PreparedStatement lock;
+    private PreparedStatement unlock;
+    private PreparedStatement refreshPurge;
+    private PreparedStatement verificationPurge;
+    private PreparedStatement revokedPurge;
+    private PreparedStatement revokedUserPurge;
+    private PreparedStatement mailPurge;
+    private ResultSet lockResult;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        lock = mock(PreparedStatement.class);
+        unlock = mock(PreparedStatement.class);
+        refreshPurge = mock(PreparedStatement.class);
+        verificationPurge = mock(PreparedStatement.class);
+        revokedPurge = mock(PreparedStatement.class);
+        revokedUserPurge = mock(PreparedStatement.class);
+        mailPurge = mock(PreparedStatement.class);
+        lockResult = mock(ResultSet.class);
+        meterRegistry = new SimpleMeterRegistry();
+
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(contains("pg_try_advisory_lock"))).thenReturn(lock);
+        when(connection.prepareStatement(contains("pg_advisory_unlock"))).thenReturn(unlock);
+        when(connection.prepareStatement(contains("FROM refresh_token_default"))).thenReturn(refreshPurge);
+        when(connection.prepareStatement(contains("FROM verification_token"))).thenReturn(verificationPurge);
+        when(connection.prepareStatement(contains("FROM revoked_token"))).thenReturn(revokedPurge);
+        when(connection.prepareStatement(contains("FROM revoked_user"))).thenReturn(revokedUserPurge);
+        when(connection.prepareStatement(contains("FROM mail_outbox"))).thenReturn(mailPurge);
+        when(lock.executeQuery()).thenReturn(lockResult);
+        when(lockResult.next()).thenReturn(true);
+    }
+
+    @Test
+    void purge_DeletesInBatchesUntilAShortBatch() throws SQLException {
+        when(lockResult.getBoolean(1)).thenReturn(true);
+        when(refreshPurge.executeUpdate()).thenReturn(2, 2, 1);
+        when(verificationPurge.executeUpdate()).thenReturn(0);
+        when(revokedPurge.executeUpdate()).thenReturn(1);
+        when(revokedUserPurge.executeUpdate()).thenReturn(0);
+        when(mailPurge.executeUpdate()).thenReturn(2, 0);
+
+        job(true).purge();
+
+        verify(refreshPurge, times(3)).executeUpdate();
+        verify(verificationPurge, times(1)).executeUpdate();
+        verify(revokedPurge, times(1)).executeUpdate();
+        verify(revokedUserPurge, times(1)).executeUpdate();
+        verify(mailPurge, times(2)).executeUpdate();
+        verify(unlock).execute();
+        assertEquals(5.0, meterRegistry.counter("auth.retention.purged", "table", "refresh_token_default").count());
+        assertEquals(0.0, meterRegistry.counter("auth.retention.purged", "table", "verification_token").count());
+        assertEquals(1.0, meterRegistry.counter("auth.retention.purged", "table", "revoked_token").count());
+        assertEquals(2.0, meterRegistry.counter("auth.retention.purged", "table", "mail_outbox").count());
+    }
+
+    @Test
+    void purge_SkipsWhenAnotherNodeHoldsTheLock() throws SQLException {
+        when(lockResult.getBoolean(1)).thenReturn(false);
+
+        job(true).purge();
+
+        verify(connection, never()).prepareStatement(contains("DELETE"));
+        verify(unlock, never()).execute();
+    }
+
+    @Test
+    void purge_Disabled_NeverConnects() throws SQLException {
+        job(false).purge();
+
+        verify(dataSource, never()).getConnection();
+        verify(connection, never()).prepareStatement(anyString());
+    }
+
+    private TokenRetentionJob job(boolean enabled) {
+        return new TokenRetentionJob(dataSource, meterRegistry, enabled, Duration.ofDays(1), 2, Duration.ZERO,
+                Duration.ofDays(7));
+    }
+}
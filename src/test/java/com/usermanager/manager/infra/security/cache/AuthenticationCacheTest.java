@@ -0,0 +1,81 @@
+package com.usermanager.manager.infra.security.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import com.usermanager.manager.infra.security.cache.AuthenticationCache.CachedAuthentication;
+import com.usermanager.manager.model.security.AccessTokenClaims;
+import com.usermanager.manager.model.security.UserInvalidationEvent;
+import com.usermanager.manager.model.user.UserRole;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AuthenticationCacheTest {
+
+    private final AuthenticationCache cache = new AuthenticationCache(true, 100, new SimpleMeterRegistry());
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_CachedToken_IsLoadedOnce() {
+        cache.get("token-a", token -> load("a@example.com"));
+        cache.get("token-a", token -> load("a@example.com"));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_DifferentTokens_AreLoadedSeparately() {
+        cache.get("token-a", token -> load("a@example.com"));
+        cache.get("token-b", token -> load("a@example.com"));
+
+        assertEquals(2, loads.get());
+    }
+
+    // an entry never outlives its token, the next request verifies it again and is rejected there
+    @Test
+    void get_ExpiredToken_IsNotKept() {
+        cache.get("token-a", token -> load("a@example.com", Instant.now().minusSeconds(1)));
+        cache.get("token-a", token -> load("a@example.com", Instant.now().minusSeconds(1)));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_Disabled_AlwaysLoads() {
+        AuthenticationCache disabled = new AuthenticationCache(false, 100, new SimpleMeterRegistry());
+
+        disabled.get("token-a", token -> load("a@example.com"));
+        disabled.get("token-a", token -> load("a@example.com"));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void onUserInvalidation_DropsOnlyThatUsersEntries() {
+        cache.get("token-a", token -> load("a@example.com"));
+        cache.get("token-b", token -> load("b@example.com"));
+
+        cache.onUserInvalidation(new UserInvalidationEvent("a@example.com"));
+        cache.get("token-a", token -> load("a@example.com"));
+        cache.get("token-b", token -> load("b@example.com"));
+
+        assertEquals(3, loads.get());
+    }
+
+    private CachedAuthentication load(String login) {
+        return load(login, Instant.now().plusSeconds(60));
+    }
+
+    private CachedAuthentication load(String login, Instant expiresAt) {
+        loads.incrementAndGet();
+        AccessTokenClaims claims = new AccessTokenClaims(login, 1L, UserRole.USER, true, Instant.now(), expiresAt,
+                UUID.randomUUID().toString());
+        return new CachedAuthentication(new UsernamePasswordAuthenticationToken(login, null), claims);
+    }
+}
@@ -0,0 +1,177 @@
+package com.usermanager.manager.infra.security.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.auth0.jwt.JWT;
+import com.usermanager.manager.infra.security.cache.AuthenticationCache;
+import com.usermanager.manager.infra.security.cache.UserPrincipalCache;
+import com.usermanager.manager.infra.security.revocation.RevokedTokenStore;
+import com.usermanager.manager.infra.security.token.TokenKeyRing;
+import com.usermanager.manager.infra.security.token.TokenService;
+import com.usermanager.manager.model.security.TokenRevocationChecker;
+import com.usermanager.manager.model.user.User;
+import com.usermanager.manager.model.user.UserRole;
+import com.usermanager.manager.repository.RevokedTokenRepository;
+import com.usermanager.manager.repository.RevokedUserRepository;
+import com.usermanager.manager.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class SecurityFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private RevokedUserRepository revokedUserRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ObjectProvider<TokenRevocationChecker> revocationChecker;
+
+    private TokenKeyRing keyRing;
+    private TokenService tokenService;
+    private RevokedTokenStore revokedTokenStore;
+    private SecurityFilter filter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        var meterRegistry = new SimpleMeterRegistry();
+        keyRing = new TokenKeyRing(TokenKeyRing.HS256, "first-secret-with-at-least-32-characters", List.of(), "", "",
+                List.of(), 1);
+        tokenService = new TokenService(keyRing);
+        ReflectionTestUtils.setField(tokenService, "accessExpirationMinutes", 15L);
+        revokedTokenStore = new RevokedTokenStore(revokedTokenRepository, revokedUserRepository, eventPublisher,
+                meterRegistry, 15, 16, 0.01);
+        when(revocationChecker.getIfAvailable()).thenReturn(revokedTokenStore);
+
+        filter = new SecurityFilter(tokenService, userRepository, revocationChecker,
+                new AuthenticationCache(true, 100, meterRegistry),
+                new UserPrincipalCache(true, 100, Duration.ofMinutes(5), meterRegistry));
+        ReflectionTestUtils.setField(filter, "stateless", true);
+
+        user = User.builder()
+                .id(7L)
+                .login("test@example.com")
+                .role(UserRole.USER)
+                .isEnabled(true)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_TokenWithClaims_AuthenticatesWithoutLookingUpTheUser() throws Exception {
+        MockHttpServletResponse response = send(tokenService.generateToken(user));
+
+        assertEquals(200, response.getStatus());
+        User principal = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        assertEquals(7L, principal.getId());
+        assertEquals("test@example.com", principal.getLogin());
+        assertTrue(SecurityContextHolder.getContext().getAuthentication().getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_USER")));
+        verifyNoInteractions(userRepository);
+    }
+
+    // tokens issued before the claims were added only carry the subject
+    @Test
+    void doFilter_TokenWithoutClaims_LoadsTheUser() throws Exception {
+        String token = JWT.create()
+                .withKeyId(keyRing.activeKey().kid())
+                .withIssuer("UserManager")
+                .withSubject(user.getLogin())
+                .withExpiresAt(Instant.now().plusSeconds(60))
+                .sign(keyRing.activeKey().algorithm());
+        when(userRepository.findByLogin(user.getLogin())).thenReturn(Optional.of(user));
+
+        MockHttpServletResponse response = send(token);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(user, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verify(userRepository).findByLogin(user.getLogin());
+    }
+
+    @Test
+    void doFilter_StatelessDisabled_LoadsTheUserDespiteTheClaims() throws Exception {
+        ReflectionTestUtils.setField(filter, "stateless", false);
+        when(userRepository.findByLogin(user.getLogin())).thenReturn(Optional.of(user));
+
+        MockHttpServletResponse response = send(tokenService.generateToken(user));
+
+        assertEquals(200, response.getStatus());
+        verify(userRepository).findByLogin(user.getLogin());
+    }
+
+    // the principal comes from the claims, so nothing but the cutoff can reject a token still in its exp
+    @Test
+    void doFilter_UserDisabledAfterIssue_RejectsTheExistingAccessToken() throws Exception {
+        String token = tokenService.generateToken(user);
+
+        MockHttpServletResponse accepted = send(token);
+        assertEquals(200, accepted.getStatus());
+
+        // what UserService.deleteUserById does through RefreshTokenService.invalidateUser
+        revokedTokenStore.revokeUser(user.getId());
+        MockHttpServletResponse rejected = send(token);
+
+        assertEquals(401, rejected.getStatus());
+        assertTrue(rejected.getContentAsString().contains("Token has been revoked."));
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void doFilter_OtherUserRevoked_KeepsTheTokenValid() throws Exception {
+        String token = tokenService.generateToken(user);
+
+        revokedTokenStore.revokeUser(8L);
+        MockHttpServletResponse response = send(token);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private MockHttpServletResponse send(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        var request = new MockHttpServletRequest("GET", "/api/users");
+        request.addHeader("Authorization", "Bearer " + token);
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,122 @@
+package com.usermanager.manager.infra.security.password;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.usermanager.manager.exception.authentication.PasswordHashingUnavailableException;
+import com.usermanager.manager.infra.exception.GlobalExceptionHandler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedPasswordEncoderTest {
+    private ThreadPoolExecutor executor;
+    private MeterRegistry meterRegistry;
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        meterRegistry = new SimpleMeterRegistry();
+        passwordEncoder = new BoundedPasswordEncoder(NoOpPasswordEncoder.getInstance(), executor, 4, 3, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void matches_RunsOnExecutorAndRecordsLatency() {
+        assertTrue(passwordEncoder.matches("password", "password"));
+        assertEquals("password", passwordEncoder.encode("password"));
+
+        assertEquals(1, meterRegistry.get("auth.password.hashing").tag("operation", "matches").timer().count());
+        assertEquals(1, meterRegistry.get("auth.password.hashing").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    void matches_QueueFull_FailsFast() {
+        CountDownLatch release = new CountDownLatch(1);
+        Callable<Void> blocker = () -> {
+            release.await();
+            return null;
+        };
+        executor.submit(blocker);
+        executor.submit(blocker);
+
+        var exception = assertThrows(PasswordHashingUnavailableException.class,
+                () -> passwordEncoder.matches("password", "password"));
+        assertEquals(3, exception.getRetryAfterSeconds());
+        release.countDown();
+    }
+
+    @Test
+    void matches_LimitReached_RejectsWith503BeforeQueueing() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slow = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+        ThreadPoolExecutor hashing = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(100));
+        ExecutorService requests = Executors.newFixedThreadPool(2);
+        try {
+            var bounded = new BoundedPasswordEncoder(slow, hashing, 2, 3, meterRegistry);
+            // two request threads hold every permit while their hashes run
+            var first = requests.submit(() -> bounded.matches("password", "password"));
+            var second = requests.submit(() -> bounded.matches("password", "password"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            var exception = assertThrows(PasswordHashingUnavailableException.class,
+                    () -> bounded.matches("password", "password"));
+            // rejected up front, the executor queue still had room
+            assertEquals(0, hashing.getQueue().size());
+            assertEquals(1, meterRegistry.get("auth.password.hashing.rejected").counter().count());
+
+            var response = new GlobalExceptionHandler().handlePasswordHashingUnavailable(exception);
+            assertEquals(503, response.getStatusCode().value());
+            assertEquals("3", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+            release.countDown();
+            assertTrue(first.get(5, TimeUnit.SECONDS));
+            assertTrue(second.get(5, TimeUnit.SECONDS));
+            // permits come back once the hashes finish
+            assertTrue(bounded.matches("password", "password"));
+        } finally {
+            release.countDown();
+            requests.shutdownNow();
+            hashing.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.usermanager.manager.infra.security.password;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class PasswordEncoderCalibratorTest {
+    private static final String PASSWORD = "password1";
+
+    @Test
+    void createEncoder_LegacyBCryptHash_MatchesAndNeedsUpgrade() {
+        PasswordEncoder encoder = new PasswordEncoderCalibrator("bcrypt", false, Duration.ZERO, 10, 2).createEncoder();
+        String legacy = new BCryptPasswordEncoder(4).encode(PASSWORD);
+
+        assertTrue(encoder.matches(PASSWORD, legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+    }
+
+    @Test
+    void createEncoder_LowerBCryptCost_NeedsUpgrade() {
+        PasswordEncoder encoder = new PasswordEncoderCalibrator("bcrypt", false, Duration.ZERO, 10, 2).createEncoder();
+        String cheap = "{bcrypt}" + new BCryptPasswordEncoder(4).encode(PASSWORD);
+        String current = encoder.encode(PASSWORD);
+
+        assertTrue(encoder.upgradeEncoding(cheap));
+        assertFalse(encoder.upgradeEncoding(current));
+    }
+
+    @Test
+    void createEncoder_Argon2_UpgradesBCryptHashes() {
+        PasswordEncoder encoder = new PasswordEncoderCalibrator("argon2", false, Duration.ZERO, 10, 2).createEncoder();
+        String bcrypt = "{bcrypt}" + new BCryptPasswordEncoder(4).encode(PASSWORD);
+        String argon2 = encoder.encode(PASSWORD);
+
+        assertTrue(argon2.startsWith("{argon2}"));
+        assertTrue(encoder.matches(PASSWORD, argon2));
+        assertTrue(encoder.matches(PASSWORD, bcrypt));
+        assertTrue(encoder.upgradeEncoding(bcrypt));
+        assertFalse(encoder.upgradeEncoding(argon2));
+    }
+
+    @Test
+    void createEncoder_Calibrated_NeverGoesBelowMinimumCost() {
+        PasswordEncoder encoder = new PasswordEncoderCalibrator("bcrypt", true, Duration.ofMillis(1), 4, 2).createEncoder();
+
+        assertFalse(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(10).encode(PASSWORD)));
+    }
+}
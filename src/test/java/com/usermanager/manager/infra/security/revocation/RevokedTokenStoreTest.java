@@ -0,0 +1,175 @@
+package com.usermanager.manager.infra.security.revocation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.usermanager.manager.model.security.AccessTokenClaims;
+import com.usermanager.manager.model.security.RevokedToken;
+import com.usermanager.manager.model.security.RevokedUser;
+import com.usermanager.manager.model.security.TokenRevocationEvent;
+import com.usermanager.manager.model.security.UserRevocationEvent;
+import com.usermanager.manager.model.user.UserRole;
+import com.usermanager.manager.repository.RevokedTokenRepository;
+import com.usermanager.manager.repository.RevokedUserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class RevokedTokenStoreTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private RevokedUserRepository revokedUserRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RevokedTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new RevokedTokenStore(revokedTokenRepository, revokedUserRepository, eventPublisher, meterRegistry,
+                15, 4, 0.01);
+    }
+
+    @Test
+    void load_RebuildsFromTable() {
+        when(revokedTokenRepository.findAllByExpiresAtAfter(any(LocalDateTime.class))).thenReturn(List.of(
+                new RevokedToken("revoked", LocalDateTime.now().plusMinutes(10), LocalDateTime.now())));
+
+        store.load();
+
+        assertTrue(store.isRevoked(claims("revoked", Instant.now().plusSeconds(600))));
+        assertFalse(store.isRevoked(claims("other", Instant.now().plusSeconds(600))));
+        assertEquals(1.0, meterRegistry.get("auth.revocation.entries").gauge().value());
+    }
+
+    @Test
+    void revoke_PersistsAndRejectsImmediately() {
+        Instant expiresAt = Instant.now().plusSeconds(600);
+
+        store.revoke("jti", expiresAt);
+
+        verify(revokedTokenRepository).revoke(anyString(), any(LocalDateTime.class));
+        verify(eventPublisher).publishEvent(new TokenRevocationEvent("jti", expiresAt));
+        assertTrue(store.isRevoked(claims("jti", expiresAt)));
+    }
+
+    @Test
+    void applyRevocation_FromAnotherNode_IsNotPersistedAgain() {
+        store.applyRevocation("remote", Instant.now().plusSeconds(600));
+
+        assertTrue(store.isRevoked(claims("remote", Instant.now().plusSeconds(600))));
+        verify(revokedTokenRepository, never()).revoke(anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void revoke_IgnoresTokensWithoutJtiOrAlreadyExpired() {
+        store.revoke(null, Instant.now().plusSeconds(600));
+        store.revoke("expired", Instant.now().minusSeconds(1));
+
+        verify(revokedTokenRepository, never()).revoke(anyString(), any(LocalDateTime.class));
+        assertFalse(store.isRevoked(claims(null, Instant.now().plusSeconds(600))));
+    }
+
+    @Test
+    void revoke_BeyondExpectedEntries_GrowsWithoutLosingEntries() {
+        List<String> tokenIds = IntStream.range(0, 50)
+                .mapToObj(i -> UUID.randomUUID().toString()).toList();
+
+        tokenIds.forEach(tokenId -> store.revoke(tokenId, Instant.now().plusSeconds(600)));
+
+        assertEquals(50, store.size());
+        tokenIds.forEach(tokenId -> assertTrue(store.isRevoked(claims(tokenId, Instant.now().plusSeconds(600)))));
+    }
+
+    @Test
+    void evictExpired_DropsEntriesPastTheirExp() {
+        when(revokedTokenRepository.findAllByExpiresAtAfter(any(LocalDateTime.class))).thenReturn(List.of(
+                new RevokedToken("expiring", LocalDateTime.now().minusSeconds(1), LocalDateTime.now()),
+                new RevokedToken("live", LocalDateTime.now().plusMinutes(10), LocalDateTime.now())));
+        store.load();
+
+        store.evictExpired();
+
+        assertEquals(1, store.size());
+        assertFalse(store.isRevoked(claims("expiring", Instant.now())));
+        assertTrue(store.isRevoked(claims("live", Instant.now().plusSeconds(600))));
+    }
+
+    @Test
+    void revokeUser_RejectsEveryTokenIssuedBeforeTheCutoff() {
+        store.revokeUser(1L);
+
+        verify(revokedUserRepository).revoke(any(Long.class), any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(eventPublisher).publishEvent(any(UserRevocationEvent.class));
+        assertTrue(store.isRevoked(claims(1L, Instant.now(), "before")));
+        assertTrue(store.isRevoked(claims(1L, null, "legacy")));
+        assertFalse(store.isRevoked(claims(1L, Instant.now().plusSeconds(2), "after")));
+        assertFalse(store.isRevoked(claims(2L, Instant.now(), "other")));
+    }
+
+    @Test
+    void load_RestoresUserCutoffs() {
+        when(revokedUserRepository.findAllByExpiresAtAfter(any(LocalDateTime.class))).thenReturn(List.of(
+                new RevokedUser(1L, LocalDateTime.now().plusSeconds(1), LocalDateTime.now().plusMinutes(15))));
+
+        store.load();
+
+        assertTrue(store.isRevoked(claims(1L, Instant.now(), "before")));
+    }
+
+    @Test
+    void applyUserRevocation_FromAnotherNode_OnlyMovesTheCutoffForward() {
+        Instant cutoff = Instant.now().plusSeconds(1);
+        store.applyUserRevocation(1L, cutoff);
+        store.applyUserRevocation(1L, cutoff.minusSeconds(60));
+
+        assertTrue(store.isRevoked(claims(1L, cutoff.minusSeconds(30), "between")));
+        verify(revokedUserRepository, never()).revoke(any(Long.class), any(LocalDateTime.class),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    void evictExpired_DropsUserCutoffsOnceTheirTokensExpired() {
+        store.applyUserRevocation(1L, Instant.now().minus(Duration.ofMinutes(16)));
+
+        store.evictExpired();
+
+        assertEquals(0.0, meterRegistry.get("auth.revocation.users").gauge().value());
+    }
+
+    private static AccessTokenClaims claims(String tokenId, Instant expiresAt) {
+        return new AccessTokenClaims("test@example.com", 1L, UserRole.USER, true, Instant.now(), expiresAt,
+                tokenId);
+    }
+
+    private static AccessTokenClaims claims(Long userId, Instant issuedAt, String tokenId) {
+        return new AccessTokenClaims("test@example.com", userId, UserRole.USER, true, issuedAt,
+                Instant.now().plusSeconds(600), tokenId);
+    }
+}
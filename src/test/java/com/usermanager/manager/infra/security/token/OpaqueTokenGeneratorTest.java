@@ -0,0 +1,28 @@
+package com.usermanager.manager.infra.security.token;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+class OpaqueTokenGeneratorTest {
+
+    private final OpaqueTokenGenerator generator = new OpaqueTokenGenerator();
+
+    @Test
+    void generate_Returns256BitUrlSafeValues() {
+        String token = generator.generate();
+
+        assertEquals(43, token.length());
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        assertEquals(32, Base64.getUrlDecoder().decode(token).length);
+    }
+
+    @Test
+    void generate_NeverRepeats() {
+        assertNotEquals(generator.generate(), generator.generate());
+    }
+}
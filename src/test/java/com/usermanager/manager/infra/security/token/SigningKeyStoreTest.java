@@ -0,0 +1,134 @@
+package com.usermanager.manager.infra.security.token;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.usermanager.manager.exception.authentication.SigningKeyException;
+import com.usermanager.manager.model.security.SigningKeyRotationEvent;
+import com.usermanager.manager.model.security.TokenSigningKey;
+import com.usermanager.manager.repository.TokenSigningKeyRepository;
+
+@ExtendWith(MockitoExtension.class)
+class SigningKeyStoreTest {
+    private static final String SECRET = "first-secret-with-at-least-32-characters";
+    private static final String NEW_SECRET = "second-secret-with-at-least-32-characters";
+    private static final String KEY_ENCRYPTION_KEY = "key-encryption-key-with-at-least-32-characters";
+
+    @Mock
+    private TokenSigningKeyRepository signingKeyRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private TokenKeyRing keyRing;
+    private SigningKeyStore store;
+
+    @BeforeEach
+    void setUp() {
+        keyRing = new TokenKeyRing(TokenKeyRing.HS256, SECRET, List.of(), "", "", List.of(), 1);
+        store = new SigningKeyStore(signingKeyRepository, keyRing, new SigningKeyCipher(KEY_ENCRYPTION_KEY),
+                eventPublisher, 1);
+    }
+
+    @Test
+    void rotate_StoresTheKeyAndSwitchesOnlyAfterCommit() {
+        String configuredKid = keyRing.activeKey().kid();
+        List<TokenSigningKey> stored = new ArrayList<>();
+        when(signingKeyRepository.save(any(TokenSigningKey.class))).thenAnswer(invocation -> {
+            stored.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(signingKeyRepository.findAllByOrderByCreatedAtAscKidAsc()).thenAnswer(invocation -> List.copyOf(stored));
+
+        String kid = store.rotate(NEW_SECRET);
+
+        assertEquals(configuredKid, keyRing.activeKey().kid());
+        ArgumentCaptor<SigningKeyRotationEvent> event = ArgumentCaptor.forClass(SigningKeyRotationEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(kid, event.getValue().kid());
+
+        store.onRotation(event.getValue());
+
+        assertEquals(kid, keyRing.activeKey().kid());
+    }
+
+    @Test
+    void rotate_DeletesStoredKeysTheRingNoLongerHolds() {
+        TokenSigningKey oldest = keyRing.newKey("old-secret-with-at-least-32-characters");
+        TokenSigningKey older = keyRing.newKey("older-secret-with-at-least-32-characters");
+        List<TokenSigningKey> stored = new ArrayList<>(List.of(oldest, older));
+        when(signingKeyRepository.save(any(TokenSigningKey.class))).thenAnswer(invocation -> {
+            stored.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(signingKeyRepository.findAllByOrderByCreatedAtAscKidAsc()).thenAnswer(invocation -> List.copyOf(stored));
+
+        store.rotate("second-secret-with-at-least-32-characters");
+
+        verify(signingKeyRepository).deleteAll(List.of(oldest));
+    }
+
+    @Test
+    void rotate_StoresTheSecretEncrypted() {
+        List<TokenSigningKey> stored = new ArrayList<>();
+        when(signingKeyRepository.save(any(TokenSigningKey.class))).thenAnswer(invocation -> {
+            stored.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(signingKeyRepository.findAllByOrderByCreatedAtAscKidAsc()).thenAnswer(invocation -> List.copyOf(stored));
+
+        String kid = store.rotate(NEW_SECRET);
+        store.load();
+
+        assertFalse(stored.get(0).getSecret().contains(NEW_SECRET));
+        assertEquals(kid, keyRing.activeKey().kid());
+    }
+
+    @Test
+    void rotate_WithoutKeyEncryptionKey_StoresNothing() {
+        SigningKeyStore unencrypted = new SigningKeyStore(signingKeyRepository, keyRing, new SigningKeyCipher(""),
+                eventPublisher, 1);
+
+        assertThrows(SigningKeyException.class, () -> unencrypted.rotate(NEW_SECRET));
+
+        verify(signingKeyRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    // another key-encryption-key cannot read the row: the node keeps signing with its configured key
+    @Test
+    void load_RowEncryptedUnderAnotherKey_IsSkipped() {
+        TokenSigningKey sealed = new SigningKeyCipher("another-key-encryption-key-of-32-characters")
+                .seal(keyRing.newKey(NEW_SECRET));
+        when(signingKeyRepository.findAllByOrderByCreatedAtAscKidAsc()).thenReturn(List.of(sealed));
+        String configuredKid = keyRing.activeKey().kid();
+
+        store.load();
+
+        assertEquals(configuredKid, keyRing.activeKey().kid());
+    }
+
+    @Test
+    void rotate_ToTheActiveKey_StoresNothing() {
+        store.rotate(SECRET);
+
+        verify(signingKeyRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+}
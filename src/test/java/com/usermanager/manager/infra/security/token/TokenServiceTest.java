@@ -0,0 +1,189 @@
+package com.usermanager.manager.infra.security.token;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.auth0.jwt.JWT;
+import com.usermanager.manager.exception.authentication.SigningKeyException;
+import com.usermanager.manager.exception.authentication.TokenInvalid;
+import com.usermanager.manager.model.security.AccessTokenClaims;
+import com.usermanager.manager.model.user.User;
+import com.usermanager.manager.model.user.UserRole;
+
+class TokenServiceTest {
+    private static final String SECRET = "first-secret-with-at-least-32-characters";
+    private static final String NEW_SECRET = "second-secret-with-at-least-32-characters";
+
+    private TokenKeyRing keyRing;
+    private TokenService tokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        keyRing = new TokenKeyRing(TokenKeyRing.HS256, SECRET, List.of(), "", "", List.of(), 1);
+        tokenService = tokenService(keyRing);
+
+        user = User.builder()
+                .id(7L)
+                .login("test@example.com")
+                .role(UserRole.ADMIN)
+                .isEnabled(true)
+                .build();
+    }
+
+    @Test
+    void validateAccessToken_ReturnsSignedClaims() {
+        String token = tokenService.generateToken(user);
+
+        AccessTokenClaims claims = tokenService.validateAccessToken(token);
+
+        assertEquals("test@example.com", claims.login());
+        assertEquals(7L, claims.userId());
+        assertEquals(UserRole.ADMIN, claims.role());
+        assertTrue(claims.enabled());
+        assertTrue(claims.isComplete());
+        assertNotNull(claims.issuedAt());
+    }
+
+    @Test
+    void reload_StoredRotation_KeepsPreviousTokensValid() {
+        String oldToken = tokenService.generateToken(user);
+
+        var rotation = keyRing.newKey(NEW_SECRET);
+        keyRing.reload(List.of(rotation));
+        String kid = rotation.getKid();
+        String newToken = tokenService.generateToken(user);
+
+        assertEquals(kid, JWT.decode(newToken).getKeyId());
+        assertNotEquals(JWT.decode(oldToken).getKeyId(), kid);
+        assertEquals(user.getLogin(), tokenService.validateToken(oldToken));
+        assertEquals(user.getLogin(), tokenService.validateToken(newToken));
+    }
+
+    @Test
+    void reload_DropsKeysBeyondTheRing() {
+        String oldToken = tokenService.generateToken(user);
+
+        keyRing.reload(List.of(keyRing.newKey(NEW_SECRET),
+                keyRing.newKey("third-secret-with-at-least-32-characters")));
+
+        assertThrows(TokenInvalid.class, () -> tokenService.validateToken(oldToken));
+    }
+
+    // after an admin rotation the operator changes api.security.token.secret: the new secret is what signs
+    @Test
+    void reload_ConfiguredSecretChangedSinceRotation_ConfiguredKeyWins() {
+        var rotation = keyRing.newKey(NEW_SECRET);
+        TokenKeyRing redeployed = new TokenKeyRing(TokenKeyRing.HS256, "third-secret-with-at-least-32-characters",
+                List.of(), "", "", List.of(), 1);
+        String configuredKid = redeployed.activeKey().kid();
+
+        keyRing.reload(List.of(rotation));
+        redeployed.reload(List.of(rotation));
+
+        assertEquals(rotation.getKid(), keyRing.activeKey().kid());
+        assertEquals(configuredKid, redeployed.activeKey().kid());
+        assertEquals(1, redeployed.keys().size());
+    }
+
+    @Test
+    void getPublicJwks_HmacKeys_AreNeverPublished() {
+        assertTrue(tokenService.getPublicJwks().isEmpty());
+    }
+
+    @Test
+    void reload_SameStoredRotations_GiveEveryNodeTheSameKey() throws GeneralSecurityException {
+        KeyPair configured = ecKeyPair();
+        TokenKeyRing node = es256Ring(configured);
+        TokenKeyRing otherNode = es256Ring(configured);
+        var rotation = node.newKey(null);
+
+        node.reload(List.of(rotation));
+        otherNode.reload(List.of(rotation));
+        String token = tokenService(node).generateToken(user);
+
+        assertEquals(node.activeKey().kid(), otherNode.activeKey().kid());
+        assertEquals(node.publicJwks(), otherNode.publicJwks());
+        assertEquals(user.getLogin(), tokenService(otherNode).validateToken(token));
+    }
+
+    @Test
+    void es256_WithoutConfiguredPrivateKey_FailsAtStartup() {
+        assertThrows(SigningKeyException.class,
+                () -> new TokenKeyRing(TokenKeyRing.ES256, "", List.of(), "", "", List.of(), 1));
+    }
+
+    @Test
+    void es256_SignsWithPublishedKey() throws GeneralSecurityException {
+        TokenService es256 = tokenService(es256Ring(ecKeyPair()));
+
+        String token = es256.generateToken(user);
+        List<Map<String, String>> jwks = es256.getPublicJwks();
+
+        assertEquals("ES256", JWT.decode(token).getAlgorithm());
+        assertEquals(1, jwks.size());
+        assertEquals(JWT.decode(token).getKeyId(), jwks.get(0).get("kid"));
+        assertEquals(user.getLogin(), es256.validateToken(token));
+    }
+
+    @Test
+    void es256_RotationPublishesBothKeys() throws GeneralSecurityException {
+        TokenKeyRing ring = es256Ring(ecKeyPair());
+        TokenService es256 = tokenService(ring);
+        String oldToken = es256.generateToken(user);
+
+        ring.reload(List.of(ring.newKey(null)));
+
+        assertEquals(2, es256.getPublicJwks().size());
+        assertEquals(user.getLogin(), es256.validateToken(oldToken));
+    }
+
+    @Test
+    void validateToken_TamperedToken_ThrowsException() {
+        String token = tokenService.generateToken(user) + "x";
+
+        assertThrows(TokenInvalid.class, () -> tokenService.validateToken(token));
+    }
+
+    @Test
+    void generateRefreshToken_SameSecond_ProducesDistinctTokens() {
+        String first = tokenService.generateToken(user, 60);
+        String second = tokenService.generateToken(user, 60);
+
+        assertNotEquals(first, second);
+        assertEquals("test@example.com", tokenService.validateToken(second));
+    }
+
+    private static KeyPair ecKeyPair() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+
+    private static TokenKeyRing es256Ring(KeyPair pair) {
+        Base64.Encoder encoder = Base64.getEncoder();
+        return new TokenKeyRing(TokenKeyRing.ES256, "", List.of(), encoder.encodeToString(pair.getPrivate().getEncoded()),
+                encoder.encodeToString(pair.getPublic().getEncoded()), List.of(), 1);
+    }
+
+    private TokenService tokenService(TokenKeyRing keyRing) {
+        TokenService service = new TokenService(keyRing);
+        ReflectionTestUtils.setField(service, "accessExpirationMinutes", 15L);
+        return service;
+    }
+}
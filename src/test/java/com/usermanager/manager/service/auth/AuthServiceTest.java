@@ -8,12 +8,13 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -23,10 +24,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationEventPublisher;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -39,14 +41,19 @@ import com.usermanager.manager.exception.authentication.TokenInvalidException;
 import com.usermanager.manager.exception.authentication.TokenNotFoundException;
 import com.usermanager.manager.exception.user.UserNotEnabledException;
 import com.usermanager.manager.infra.mail.MailService;
-import com.usermanager.manager.model.security.RefreshToken;
+import com.usermanager.manager.infra.security.revocation.RevokedTokenStore;
+import com.usermanager.manager.model.security.AccessTokenClaims;
 import com.usermanager.manager.model.security.TokenProvider;
 import com.usermanager.manager.model.user.User;
 import com.usermanager.manager.model.user.UserRole;
 import com.usermanager.manager.model.verification.VerificationToken;
 import com.usermanager.manager.model.verification.enums.TokenType;
+import com.usermanager.manager.service.auth.RefreshTokenService.Rotation;
 import com.usermanager.manager.service.user.UserService;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 class AuthServiceTest {
     @Mock
@@ -62,7 +69,10 @@ class AuthServiceTest {
     private VerificationTokenService verificationService;
 
     @Mock
-    private AuthenticationManager authenticationManager;
+    private AuthenticationEventPublisher authenticationEventPublisher;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @Mock
     private MailService mailService;
@@ -70,6 +80,9 @@ class AuthServiceTest {
     @Mock
     private RefreshTokenService refreshTokenService;
 
+    @Mock
+    private RevokedTokenStore revokedTokenStore;
+
     @InjectMocks
     private AuthService authService;
 
@@ -112,36 +125,88 @@ class AuthServiceTest {
 
     @Test
     void Login_Successful_ReturnsToken() {
-        Authentication authentication = mock(Authentication.class);
-
-        when(userService.findUserByLogin(authenticationDTO.login())).thenReturn(user);
+        when(userService.findUserByLoginOptional(authenticationDTO.login())).thenReturn(Optional.of(user));
         when(passwordEncoder.matches(testPassword, encodedPassword)).thenReturn(true);
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(authentication);
-        when(authentication.getPrincipal()).thenReturn(user);
         when(tokenProvider.generateToken(user)).thenReturn(testToken);
         when(refreshTokenService.createRefreshToken(user)).thenReturn("refreshToken");
 
         TokensDTO result = authService.login(authenticationDTO);
         assertEquals(testToken, result.accessToken());
         assertEquals("refreshToken", result.refreshToken());
-        verify(authenticationManager).authenticate(any());
+
+        // one lookup and one hash per login
+        verify(userService, times(1)).findUserByLoginOptional(testEmail);
+        verify(passwordEncoder, times(1)).matches(testPassword, encodedPassword);
+
+        ArgumentCaptor<Authentication> authCaptor = ArgumentCaptor.forClass(Authentication.class);
+        verify(authenticationEventPublisher).publishAuthenticationSuccess(authCaptor.capture());
+        assertEquals(user, authCaptor.getValue().getPrincipal());
+        assertTrue(authCaptor.getValue().isAuthenticated());
+
+        for (String stage : new String[] {"lookup", "hash", "token", "refresh"}) {
+            assertEquals(1, meterRegistry.get("auth.login.stage").tag("stage", stage).timer().count());
+        }
+    }
+
+    @Test
+    void Login_OutdatedHash_IsUpgraded() {
+        when(userService.findUserByLoginOptional(authenticationDTO.login())).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches(testPassword, encodedPassword)).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(encodedPassword)).thenReturn(true);
+        when(passwordEncoder.encode(testPassword)).thenReturn("{argon2}upgradedPassword");
+
+        authService.login(authenticationDTO);
+
+        ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
+        verify(userService).saveUser(userCaptor.capture());
+        assertEquals("{argon2}upgradedPassword", userCaptor.getValue().getPassword());
+    }
+
+    @Test
+    void Login_CurrentHash_IsNotRewritten() {
+        when(userService.findUserByLoginOptional(authenticationDTO.login())).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches(testPassword, encodedPassword)).thenReturn(true);
+
+        authService.login(authenticationDTO);
+
+        verify(passwordEncoder, never()).encode(any());
+        verify(userService, never()).saveUser(any());
     }
 
     @Test
     void Login_UserNotEnabled_ThrowsException() {
         user.setIsEnabled(false);
-        when(userService.findUserByLogin(authenticationDTO.login())).thenReturn(user);
+        when(userService.findUserByLoginOptional(authenticationDTO.login())).thenReturn(Optional.of(user));
 
         assertThrows(UserNotEnabledException.class, () -> authService.login(authenticationDTO));
+        verify(passwordEncoder, never()).matches(anyString(), anyString());
+        verify(authenticationEventPublisher).publishAuthenticationFailure(any(DisabledException.class), any());
+    }
+
+    @Test
+    void Login_UnknownUser_FailsLikeAWrongPassword() {
+        when(userService.findUserByLoginOptional(authenticationDTO.login())).thenReturn(Optional.empty());
+        when(passwordEncoder.encode(anyString())).thenReturn("{bcrypt}dummyHash");
+
+        assertThrows(BadCredentialsException.class, () -> authService.login(authenticationDTO));
+        assertThrows(BadCredentialsException.class, () -> authService.login(authenticationDTO));
+
+        // one hash per attempt against the same dummy, so the timing matches a stored password check
+        verify(passwordEncoder, times(1)).encode(anyString());
+        verify(passwordEncoder, times(2)).matches(testPassword, "{bcrypt}dummyHash");
+        verify(authenticationEventPublisher, times(2))
+                .publishAuthenticationFailure(any(BadCredentialsException.class), any());
+        verify(userService, never()).findUserByLogin(anyString());
     }
 
     @Test
     void Login_InvalidPassword_ThrowsException() {
-        when(userService.findUserByLogin(authenticationDTO.login())).thenReturn(user);
+        when(userService.findUserByLoginOptional(authenticationDTO.login())).thenReturn(Optional.of(user));
         when(passwordEncoder.matches(authenticationDTO.password(), user.getPassword())).thenReturn(false);
 
         assertThrows(BadCredentialsException.class, () -> authService.login(authenticationDTO));
+        verify(authenticationEventPublisher).publishAuthenticationFailure(any(BadCredentialsException.class), any());
+        verify(refreshTokenService, never()).createRefreshToken(any());
     }
 
     @Test
@@ -216,6 +281,7 @@ class AuthServiceTest {
         ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
         verify(userService).saveUser(userCaptor.capture());
         assertEquals("newEncodedPassword", userCaptor.getValue().getPassword());
+        verify(refreshTokenService).invalidateUser(user);
 
         // Verify token update
         ArgumentCaptor<VerificationToken> tokenCaptor = ArgumentCaptor.forClass(VerificationToken.class);
@@ -230,58 +296,67 @@ class AuthServiceTest {
         String newAccessToken = "newAccessToken";
         String newRefreshToken = "newRefreshToken";
 
-        RefreshToken refreshToken = new RefreshToken();
-        refreshToken.setToken(oldRefreshToken);
-        refreshToken.setUser(user);
-
-        when(refreshTokenService.findByToken(oldRefreshToken)).thenReturn(refreshToken);
+        when(refreshTokenService.rotate(oldRefreshToken)).thenReturn(new Rotation(user, newRefreshToken));
         when(tokenProvider.generateToken(user)).thenReturn(newAccessToken);
-        when(refreshTokenService.createRefreshToken(user)).thenReturn(newRefreshToken);
 
         TokensDTO result = authService.refreshToken(oldRefreshToken);
 
         assertEquals(newAccessToken, result.accessToken());
         assertEquals(newRefreshToken, result.refreshToken());
-        verify(refreshTokenService).invalidateToken(oldRefreshToken);
+        verify(refreshTokenService, never()).createRefreshToken(any());
     }
 
     @Test
     void refreshToken_ShouldThrowException_WhenRefreshTokenNotFound() {
         String invalidToken = "invalidToken";
 
-        when(refreshTokenService.findByToken(invalidToken)).thenThrow(new TokenNotFoundException("Refresh Token not found"));
+        when(refreshTokenService.rotate(invalidToken)).thenThrow(new TokenNotFoundException("Refresh Token not found"));
 
         assertThrows(TokenNotFoundException.class, () -> authService.refreshToken(invalidToken));
-        verify(refreshTokenService, never()).invalidateToken(anyString());
+        verify(tokenProvider, never()).generateToken(any());
     }
 
     @Test
     void refreshToken_ShouldThrowException_WhenRefreshTokenIsExpired() {
         String expiredToken = "expiredToken";
 
-        // Simula o comportamento do método findByToken lançando TokenInvalidException
-        when(refreshTokenService.findByToken(expiredToken))
+        when(refreshTokenService.rotate(expiredToken))
             .thenThrow(new TokenInvalidException("Refresh Token expired"));
 
-        // Verifica se a exceção é lançada ao chamar o método refreshToken
         assertThrows(TokenInvalidException.class, () -> authService.refreshToken(expiredToken));
-
-        // Garante que o método invalidateToken nunca é chamado
-        verify(refreshTokenService, never()).invalidateToken(anyString());
+        verify(tokenProvider, never()).generateToken(any());
     }
 
     @Test
     void refreshToken_ShouldThrowException_WhenRefreshTokenIsAlreadyUsed() {
         String usedToken = "usedToken";
 
-        // Simula o comportamento do método findByToken lançando TokenInvalidException
-        when(refreshTokenService.findByToken(usedToken))
+        when(refreshTokenService.rotate(usedToken))
             .thenThrow(new TokenInvalidException("Refresh Token already used"));
 
-        // Verifica se a exceção é lançada ao chamar o método refreshToken
         assertThrows(TokenInvalidException.class, () -> authService.refreshToken(usedToken));
+        verify(tokenProvider, never()).generateToken(any());
+    }
+
+    @Test
+    void logout_RevokesAccessTokenAndConsumesRefreshToken() {
+        Instant expiresAt = Instant.now().plusSeconds(600);
+        when(tokenProvider.validateAccessToken("accessToken")).thenReturn(
+                new AccessTokenClaims(testEmail, 1L, UserRole.USER, true, Instant.now(), expiresAt, "jti"));
+        when(refreshTokenService.invalidateToken(testToken))
+            .thenThrow(new TokenNotFoundException("Refresh Token not found"));
+
+        authService.logout("accessToken", testToken);
+
+        verify(revokedTokenStore).revoke("jti", expiresAt);
+        verify(refreshTokenService).invalidateToken(testToken);
+    }
+
+    @Test
+    void logout_WithoutAccessToken_OnlyConsumesRefreshToken() {
+        authService.logout(null, testToken);
 
-        // Garante que o método invalidateToken nunca é chamado
-        verify(refreshTokenService, never()).invalidateToken(anyString());
+        verifyNoInteractions(revokedTokenStore);
+        verify(refreshTokenService).invalidateToken(testToken);
     }
 }
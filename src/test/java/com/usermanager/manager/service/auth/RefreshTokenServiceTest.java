@@ -1,26 +1,51 @@
 package com.usermanager.manager.service.auth;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.notNull;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.usermanager.manager.dto.user.SessionDTO;
+import com.usermanager.manager.dto.user.SessionPageDTO;
+import com.usermanager.manager.exception.authentication.InvalidSessionCursorException;
+import com.usermanager.manager.exception.authentication.TokenInvalidException;
 import com.usermanager.manager.exception.authentication.TokenNotFoundException;
+import com.usermanager.manager.exception.user.UserNotEnabledException;
+import com.usermanager.manager.infra.security.revocation.RevokedTokenStore;
+import com.usermanager.manager.infra.security.token.OpaqueTokenGenerator;
+import com.usermanager.manager.infra.security.token.TokenDigest;
 import com.usermanager.manager.model.security.RefreshToken;
 import com.usermanager.manager.model.security.TokenProvider;
+import com.usermanager.manager.model.security.UserInvalidationEvent;
 import com.usermanager.manager.model.user.User;
 import com.usermanager.manager.repository.RefreshTokenRepository;
+import com.usermanager.manager.repository.RefreshTokenRepository.ConsumedRefreshToken;
+import com.usermanager.manager.repository.RefreshTokenRepository.Session;
+import com.usermanager.manager.repository.UserRepository;
+import com.usermanager.manager.service.auth.RefreshTokenService.Rotation;
 
 @ExtendWith(MockitoExtension.class)
 class RefreshTokenServiceTest {
@@ -28,57 +53,237 @@ class RefreshTokenServiceTest {
     @Mock
     private RefreshTokenRepository refreshTokenRepository;
 
+    @Mock
+    private UserRepository userRepository;
+
     @Mock
     private TokenProvider tokenProvider;
 
+    @Mock
+    private OpaqueTokenGenerator opaqueTokenGenerator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private RevokedTokenStore revokedTokenStore;
+
     @InjectMocks
     private RefreshTokenService refreshTokenService;
 
     @Test
     void createRefreshToken_ShouldReturnToken_WhenTokenGeneratedSuccessfully() {
-        User user = new User();
+        User user = User.builder().id(1L).build();
         String generatedToken = "testToken";
+        ReflectionTestUtils.setField(refreshTokenService, "maxSessions", 5);
 
-        when(tokenProvider.generateToken(user, 0L)).thenReturn(generatedToken);
+        when(opaqueTokenGenerator.generate()).thenReturn(generatedToken);
 
         String result = refreshTokenService.createRefreshToken(user);
 
         assertEquals(generatedToken, result);
-        verify(refreshTokenRepository, times(1)).save(any(RefreshToken.class));
+        verify(refreshTokenRepository, times(1)).insertEvictingOldest(eq(1L),
+                eq(TokenDigest.sha256Hex(generatedToken)), notNull(), any(LocalDateTime.class),
+                any(LocalDateTime.class), eq(5));
+    }
+
+    @Test
+    void createRefreshToken_JwtFormat_ShouldSignToken() {
+        User user = new User();
+        ReflectionTestUtils.setField(refreshTokenService, "format", RefreshTokenService.FORMAT_JWT);
+
+        when(tokenProvider.generateToken(user, 0L)).thenReturn("signedToken");
+
+        assertEquals("signedToken", refreshTokenService.createRefreshToken(user));
+        verify(opaqueTokenGenerator, never()).generate();
     }
 
     @Test
     void createRefreshToken_ShouldThrowException_WhenTokenGenerationFails() {
         User user = new User();
 
-        when(tokenProvider.generateToken(user, 0L)).thenReturn(null);
+        when(opaqueTokenGenerator.generate()).thenReturn(null);
 
         assertThrows(TokenNotFoundException.class, () -> refreshTokenService.createRefreshToken(user));
-        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+        verifyNoInteractions(refreshTokenRepository);
+    }
+
+    @Test
+    void rotate_ShouldIssueTokenInSameFamily_WhenTokenIsUsable() {
+        String token = "testToken";
+        UUID familyId = UUID.randomUUID();
+        User user = User.builder().id(1L).isEnabled(true).build();
+
+        when(refreshTokenRepository.consume(eq(TokenDigest.sha256Hex(token)), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(consumed(1L, familyId)));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(opaqueTokenGenerator.generate()).thenReturn("newToken");
+
+        Rotation rotation = refreshTokenService.rotate(token);
+
+        assertSame(user, rotation.user());
+        assertEquals("newToken", rotation.refreshToken());
+        verify(refreshTokenRepository).insertEvictingOldest(eq(1L), eq(TokenDigest.sha256Hex("newToken")),
+                eq(familyId), any(LocalDateTime.class), any(LocalDateTime.class), anyInt());
+        verify(refreshTokenRepository, never()).findByTokenHash(any());
+    }
+
+    @Test
+    void rotate_ShouldThrowException_WhenUserIsDisabled() {
+        String token = "testToken";
+        User user = User.builder().id(1L).login("test@example.com").isEnabled(false).build();
+
+        when(refreshTokenRepository.consume(eq(TokenDigest.sha256Hex(token)), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(consumed(1L, UUID.randomUUID())));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        assertThrows(UserNotEnabledException.class, () -> refreshTokenService.rotate(token));
+        verifyNoInteractions(opaqueTokenGenerator);
+    }
+
+    @Test
+    void rotate_ShouldRevokeFamily_WhenTokenIsReused() {
+        String token = "testToken";
+        UUID familyId = UUID.randomUUID();
+        RefreshToken used = new RefreshToken(User.builder().id(1L).build(), TokenDigest.sha256Hex(token),
+                familyId, LocalDateTime.now().plusDays(1));
+        used.setUsed(true);
+
+        when(refreshTokenRepository.consume(eq(TokenDigest.sha256Hex(token)), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+        when(refreshTokenRepository.findByTokenHash(TokenDigest.sha256Hex(token))).thenReturn(Optional.of(used));
+
+        assertThrows(TokenInvalidException.class, () -> refreshTokenService.rotate(token));
+        verify(refreshTokenRepository).revokeFamily(familyId);
+        verify(refreshTokenRepository, never()).insertEvictingOldest(any(), any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void rotate_ShouldThrowException_WhenTokenIsExpired() {
+        String token = "testToken";
+        RefreshToken expired = new RefreshToken(User.builder().id(1L).build(), TokenDigest.sha256Hex(token),
+                UUID.randomUUID(), LocalDateTime.now().minusDays(1));
+
+        when(refreshTokenRepository.consume(eq(TokenDigest.sha256Hex(token)), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+        when(refreshTokenRepository.findByTokenHash(TokenDigest.sha256Hex(token))).thenReturn(Optional.of(expired));
+
+        assertThrows(TokenInvalidException.class, () -> refreshTokenService.rotate(token));
+        verify(refreshTokenRepository, never()).revokeFamily(any(UUID.class));
+    }
+
+    @Test
+    void rotate_ShouldThrowException_WhenTokenNotFound() {
+        String token = "invalidToken";
+
+        when(refreshTokenRepository.consume(eq(TokenDigest.sha256Hex(token)), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+        when(refreshTokenRepository.findByTokenHash(TokenDigest.sha256Hex(token))).thenReturn(Optional.empty());
+
+        assertThrows(TokenNotFoundException.class, () -> refreshTokenService.rotate(token));
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
     void invalidateToken_ShouldReturnTrue_WhenTokenIsValid() {
         String token = "testToken";
-        RefreshToken refreshToken = new RefreshToken();
-        refreshToken.setToken(token);
 
-        when(refreshTokenRepository.findByToken(token)).thenReturn(Optional.of(refreshToken));
+        when(refreshTokenRepository.markUsed(TokenDigest.sha256Hex(token))).thenReturn(1);
 
         boolean result = refreshTokenService.invalidateToken(token);
 
         assertEquals(true, result);
-        assertEquals(true, refreshToken.getUsed());
-        verify(refreshTokenRepository, times(1)).save(refreshToken);
     }
 
     @Test
     void invalidateToken_ShouldThrowException_WhenTokenNotFound() {
         String token = "invalidToken";
 
-        when(refreshTokenRepository.findByToken(token)).thenReturn(Optional.empty());
+        when(refreshTokenRepository.markUsed(TokenDigest.sha256Hex(token))).thenReturn(0);
 
         assertThrows(TokenNotFoundException.class, () -> refreshTokenService.invalidateToken(token));
-        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void listSessions_FullPage_ReturnsCursorOfLastSession() {
+        LocalDateTime refreshedAt = LocalDateTime.of(2026, 10, 1, 12, 30, 15, 123456000);
+        UUID last = UUID.randomUUID();
+
+        when(refreshTokenRepository.findSessions(eq(1L), any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(session(UUID.randomUUID(), refreshedAt.plusHours(1)), session(last, refreshedAt)));
+
+        SessionPageDTO page = refreshTokenService.listSessions(1L, null, 2);
+
+        assertEquals(2, page.sessions().size());
+        assertNotNull(page.nextCursor());
+
+        SessionCursor cursor = SessionCursor.decode(page.nextCursor());
+        assertEquals(refreshedAt, cursor.refreshedAt());
+        assertEquals(last, cursor.id());
+    }
+
+    @Test
+    void listSessions_LastPage_HasNoCursor() {
+        when(refreshTokenRepository.findSessionsAfter(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class),
+                any(UUID.class), eq(20))).thenReturn(List.of(session(UUID.randomUUID(), LocalDateTime.now())));
+
+        String cursor = SessionCursor.encode(new SessionDTO(UUID.randomUUID(), LocalDateTime.now(), LocalDateTime.now()));
+        SessionPageDTO page = refreshTokenService.listSessions(1L, cursor, 20);
+
+        assertEquals(1, page.sessions().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void listSessions_ShouldThrowException_WhenCursorIsMalformed() {
+        assertThrows(InvalidSessionCursorException.class, () -> refreshTokenService.listSessions(1L, "not-a-cursor", 20));
+    }
+
+    @Test
+    void revokeSession_ShouldThrowException_WhenSessionIsNotOwned() {
+        UUID sessionId = UUID.randomUUID();
+
+        when(refreshTokenRepository.revokeFamily(1L, sessionId)).thenReturn(0);
+
+        assertThrows(TokenNotFoundException.class, () -> refreshTokenService.revokeSession(1L, sessionId));
+    }
+
+    @Test
+    void invalidateUser_RevokesAllTokensAndPublishesEvent() {
+        User user = User.builder().id(1L).login("test@example.com").build();
+
+        refreshTokenService.invalidateUser(user);
+
+        verify(refreshTokenRepository).revokeAllByUserId(1L);
+        verify(revokedTokenStore).revokeUser(1L);
+        verify(eventPublisher).publishEvent(new UserInvalidationEvent("test@example.com"));
+    }
+
+    private static Session session(UUID id, LocalDateTime refreshedAt) {
+        return new Session() {
+            public UUID getId() {
+                return id;
+            }
+
+            public LocalDateTime getRefreshedAt() {
+                return refreshedAt;
+            }
+
+            public LocalDateTime getExpiresAt() {
+                return refreshedAt.plusDays(7);
+            }
+        };
+    }
+
+    private static ConsumedRefreshToken consumed(Long userId, UUID familyId) {
+        return new ConsumedRefreshToken() {
+            public Long getUserId() {
+                return userId;
+            }
+
+            public UUID getFamilyId() {
+                return familyId;
+            }
+        };
     }
 }
@@ -0,0 +1,110 @@
+package com.usermanager.manager.service.auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.usermanager.manager.dto.authentication.TokenIntrospectionDTO;
+import com.usermanager.manager.exception.authentication.IntrospectionBatchTooLargeException;
+import com.usermanager.manager.exception.authentication.TokenInvalid;
+import com.usermanager.manager.model.security.AccessTokenClaims;
+import com.usermanager.manager.model.security.TokenProvider;
+import com.usermanager.manager.model.security.TokenRevocationChecker;
+import com.usermanager.manager.model.user.UserRole;
+
+class TokenIntrospectionServiceTest {
+
+    private TokenProvider tokenProvider;
+    private TokenRevocationChecker revocationChecker;
+    private ThreadPoolExecutor executor;
+    private TokenIntrospectionService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        tokenProvider = mock(TokenProvider.class);
+        revocationChecker = mock(TokenRevocationChecker.class);
+        ObjectProvider<TokenRevocationChecker> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(revocationChecker);
+        executor = new ThreadPoolExecutor(4, 4, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        service = new TokenIntrospectionService(tokenProvider, provider, executor, 100);
+
+        // "token-<n>": odd numbers carry a bad signature
+        when(tokenProvider.validateAccessToken(anyString())).thenAnswer(invocation -> {
+            String token = invocation.getArgument(0);
+            int number = Integer.parseInt(token.substring(token.indexOf('-') + 1));
+            if (number % 2 == 1) {
+                throw new TokenInvalid("Token invalid or expired.");
+            }
+            return claims("user" + number + "@example.com", true, "jti-" + number);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void introspect_LargeBatch_KeepsRequestOrderAcrossChunks() {
+        List<String> tokens = IntStream.range(0, 64).mapToObj(i -> "token-" + i).toList();
+
+        List<TokenIntrospectionDTO> results = service.introspect(tokens);
+
+        assertEquals(64, results.size());
+        for (int i = 0; i < 64; i++) {
+            TokenIntrospectionDTO result = results.get(i);
+            assertEquals(i % 2 == 0, result.active());
+            if (result.active()) {
+                assertEquals("user" + i + "@example.com", result.sub());
+                assertEquals("USER", result.role());
+            }
+        }
+        assertTrue(executor.getCompletedTaskCount() > 0);
+    }
+
+    @Test
+    void introspect_RevokedOrDisabled_IsInactive() {
+        when(tokenProvider.validateAccessToken("disabled-2"))
+                .thenReturn(claims("disabled@example.com", false, "jti-disabled"));
+        when(revocationChecker.isRevoked(argThat(
+                claims -> "jti-4".equals(claims.tokenId())))).thenReturn(true);
+
+        List<TokenIntrospectionDTO> results = service.introspect(List.of("token-2", "token-4", "disabled-2", ""));
+
+        assertTrue(results.get(0).active());
+        assertFalse(results.get(1).active());
+        assertFalse(results.get(2).active());
+        assertFalse(results.get(3).active());
+        assertEquals(0, executor.getTaskCount());
+    }
+
+    @Test
+    void introspect_TooManyTokens_ThrowsException() {
+        List<String> tokens = IntStream.range(0, 101).mapToObj(i -> "token-" + i).toList();
+
+        assertThrows(IntrospectionBatchTooLargeException.class, () -> service.introspect(tokens));
+    }
+
+    private static AccessTokenClaims claims(String login, boolean enabled, String tokenId) {
+        return new AccessTokenClaims(login, 1L, UserRole.USER, enabled, Instant.now(), Instant.now().plusSeconds(600),
+                tokenId);
+    }
+}
@@ -19,10 +19,12 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.usermanager.manager.exception.authentication.TokenInvalid;
 import com.usermanager.manager.exception.authentication.TokenInvalidException;
 import com.usermanager.manager.exception.authentication.TokenNotFoundException;
+import com.usermanager.manager.model.security.UserInvalidationEvent;
 import com.usermanager.manager.model.user.User;
 import com.usermanager.manager.model.verification.VerificationToken;
 import com.usermanager.manager.model.verification.enums.TokenType;
@@ -37,6 +39,9 @@ class VerificationTokenServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private VerificationTokenService verificationTokenService;
 
@@ -94,6 +99,7 @@ class VerificationTokenServiceTest {
 
         assertTrue(result);
         assertTrue(testUser.getIsEnabled());
+        verify(eventPublisher).publishEvent(new UserInvalidationEvent(testUser.getLogin()));
 
         ArgumentCaptor<VerificationToken> verificationCaptor = ArgumentCaptor.forClass(VerificationToken.class);
         verify(verificationRepository).save(verificationCaptor.capture());
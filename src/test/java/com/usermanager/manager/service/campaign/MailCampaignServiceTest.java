@@ -0,0 +1,176 @@
+package com.usermanager.manager.service.campaign;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.usermanager.manager.dto.admin.StartCampaignDTO;
+import com.usermanager.manager.exception.mail.CampaignAlreadyRunningException;
+import com.usermanager.manager.infra.mail.MailService;
+import com.usermanager.manager.model.email.MailCampaign;
+import com.usermanager.manager.model.email.enums.CampaignType;
+import com.usermanager.manager.model.user.User;
+import com.usermanager.manager.model.verification.VerificationToken;
+import com.usermanager.manager.model.verification.enums.TokenType;
+import com.usermanager.manager.repository.MailCampaignRepository;
+import com.usermanager.manager.repository.UserRepository;
+import com.usermanager.manager.service.auth.VerificationTokenService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class MailCampaignServiceTest {
+
+    @Mock
+    private MailCampaignRepository campaignRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private VerificationTokenService verificationService;
+
+    @Mock
+    private MailService mailService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleTransactionStatus transactionStatus;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        transactionStatus = new SimpleTransactionStatus();
+    }
+
+    @Test
+    void run_EnqueuesChunksFromTheCheckpointUntilAShortChunk() {
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        when(userRepository.findByIdGreaterThanAndIsEnabledOrderByIdAsc(eq(10L), eq(true), any(Limit.class)))
+                .thenReturn(List.of(user(11L), user(12L)));
+        when(userRepository.findByIdGreaterThanAndIsEnabledOrderByIdAsc(eq(12L), eq(true), any(Limit.class)))
+                .thenReturn(List.of(user(15L)));
+        when(campaignRepository.checkpoint(eq(1L), anyString(), anyLong(), anyInt(), any(LocalDateTime.class)))
+                .thenReturn(1);
+
+        service(0).run(campaign(CampaignType.POLICY_NOTICE, 10L));
+
+        verify(mailService, times(3)).sendPolicyNotice(anyString(), eq(Locale.forLanguageTag("pt-BR")),
+                any(LocalDateTime.class));
+        verify(campaignRepository).checkpoint(eq(1L), anyString(), eq(12L), eq(2), any(LocalDateTime.class));
+        verify(campaignRepository).checkpoint(eq(1L), anyString(), eq(15L), eq(1), any(LocalDateTime.class));
+        verify(campaignRepository).finish(eq(1L), anyString(), eq("COMPLETED"), isNull(), any(LocalDateTime.class));
+        assertEquals(3.0, meterRegistry.counter("mail.campaign.enqueued", "type", "POLICY_NOTICE").count());
+    }
+
+    @Test
+    void run_SpreadsTheMailsOfAChunkOverTheRate() {
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        when(userRepository.findByIdGreaterThanAndIsEnabledOrderByIdAsc(eq(0L), eq(true), any(Limit.class)))
+                .thenReturn(List.of(user(1L), user(2L), user(3L)));
+        when(campaignRepository.checkpoint(eq(1L), anyString(), anyLong(), anyInt(), any(LocalDateTime.class)))
+                .thenReturn(1);
+
+        service(10).run(campaign(CampaignType.POLICY_NOTICE, 0L));
+
+        ArgumentCaptor<LocalDateTime> notBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(mailService, times(3)).sendPolicyNotice(anyString(), any(Locale.class), notBefore.capture());
+        List<LocalDateTime> times = notBefore.getAllValues();
+        assertEquals(Duration.ofMillis(100), Duration.between(times.get(0), times.get(1)));
+        assertEquals(Duration.ofMillis(100), Duration.between(times.get(1), times.get(2)));
+    }
+
+    @Test
+    void run_ActivationReminder_SendsANewTokenToEachDisabledUser() {
+        List<User> users = List.of(user(1L), user(2L));
+        List<VerificationToken> tokens = List.of(token(users.get(0)), token(users.get(1)));
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        when(userRepository.findByIdGreaterThanAndIsEnabledOrderByIdAsc(eq(0L), eq(false), any(Limit.class)))
+                .thenReturn(users);
+        when(verificationService.generateVerificationTokens(users, TokenType.EMAIL_VALIDATION)).thenReturn(tokens);
+        when(campaignRepository.checkpoint(eq(1L), anyString(), anyLong(), anyInt(), any(LocalDateTime.class)))
+                .thenReturn(1);
+
+        service(0).run(campaign(CampaignType.ACTIVATION_REMINDER, 0L));
+
+        verify(mailService).sendVerificationMail(eq("user1@test.com"), eq(tokens.get(0).getUuid().toString()),
+                any(Locale.class), any(LocalDateTime.class));
+        verify(mailService).sendVerificationMail(eq("user2@test.com"), eq(tokens.get(1).getUuid().toString()),
+                any(Locale.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void run_RefusedCheckpoint_RollsTheChunkBackAndStops() {
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        when(userRepository.findByIdGreaterThanAndIsEnabledOrderByIdAsc(eq(0L), eq(true), any(Limit.class)))
+                .thenReturn(List.of(user(1L), user(2L)));
+        when(campaignRepository.checkpoint(eq(1L), anyString(), anyLong(), anyInt(), any(LocalDateTime.class)))
+                .thenReturn(0);
+
+        service(0).run(campaign(CampaignType.POLICY_NOTICE, 0L));
+
+        assertTrue(transactionStatus.isRollbackOnly());
+        verify(campaignRepository, never()).finish(anyLong(), anyString(), anyString(), any(), any());
+        assertEquals(0.0, meterRegistry.counter("mail.campaign.enqueued", "type", "POLICY_NOTICE").count());
+    }
+
+    @Test
+    void start_AnotherCampaignOfTheTypeRunning_ThrowsConflict() {
+        when(campaignRepository.saveAndFlush(any(MailCampaign.class)))
+                .thenThrow(new DataIntegrityViolationException("idx_mail_campaign_running_type"));
+
+        assertThrows(CampaignAlreadyRunningException.class,
+                () -> service(0).start(new StartCampaignDTO(CampaignType.POLICY_NOTICE, null), "admin@test.com"));
+    }
+
+    private MailCampaignService service(double rate) {
+        return new MailCampaignService(campaignRepository, userRepository, verificationService, mailService,
+                new TransactionTemplate(transactionManager), meterRegistry, 2, rate, Duration.ofMinutes(2));
+    }
+
+    private static MailCampaign campaign(CampaignType type, long lastUserId) {
+        MailCampaign campaign = new MailCampaign(type, "pt-BR", "admin@test.com", "node");
+        campaign.setId(1L);
+        campaign.setLastUserId(lastUserId);
+        return campaign;
+    }
+
+    private static User user(Long id) {
+        return User.builder().id(id).name("user" + id).login("user" + id + "@test.com").build();
+    }
+
+    private static VerificationToken token(User user) {
+        return VerificationToken.builder().uuid(UUID.randomUUID()).user(user).tokenType(TokenType.EMAIL_VALIDATION)
+                .build();
+    }
+}
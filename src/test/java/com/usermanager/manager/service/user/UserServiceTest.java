@@ -3,13 +3,16 @@ package com.usermanager.manager.service.user;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,7 +22,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.usermanager.manager.dto.authentication.CreateUserDTO;
@@ -30,14 +35,19 @@ import com.usermanager.manager.dto.user.UserResponseDTO;
 import com.usermanager.manager.exception.user.UserExistsException;
 import com.usermanager.manager.exception.user.UserNotFoundException;
 import com.usermanager.manager.infra.mail.MailService;
+import com.usermanager.manager.infra.security.cache.UserPrincipalCache;
 import com.usermanager.manager.mappers.UserMapper;
+import com.usermanager.manager.model.security.UserInvalidationEvent;
 import com.usermanager.manager.model.user.User;
 import com.usermanager.manager.model.user.UserRole;
 import com.usermanager.manager.model.verification.VerificationToken;
 import com.usermanager.manager.model.verification.enums.TokenType;
 import com.usermanager.manager.repository.UserRepository;
+import com.usermanager.manager.service.auth.RefreshTokenService;
 import com.usermanager.manager.service.auth.VerificationTokenService;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 class UserServiceTest {
 
@@ -55,7 +65,17 @@ class UserServiceTest {
     
     @Mock
     private MailService mailService;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
     
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private UserPrincipalCache principalCache = new UserPrincipalCache(true, 100, Duration.ofMinutes(5),
+            new SimpleMeterRegistry());
+
     @InjectMocks
     private UserService userService;
     
@@ -126,6 +146,7 @@ class UserServiceTest {
         // Assert
         assertNotNull(result);
         verify(userRepository).save(any(User.class));
+        verify(refreshTokenService).invalidateUser(any(User.class));
     }
 
     // Teste para getAllUsers
@@ -181,6 +202,7 @@ class UserServiceTest {
         assertTrue(result);
         assertFalse(user.getIsEnabled());
         verify(userRepository).save(user);
+        verify(refreshTokenService).invalidateUser(user);
     }
 
     // Teste para deleteUserById - Não encontrado
@@ -210,6 +232,7 @@ class UserServiceTest {
         assertTrue(result);
         assertFalse(user.getIsEnabled());
         verify(userRepository).save(user);
+        verify(refreshTokenService).invalidateUser(user);
     }
 
     // Teste para saveUser
@@ -220,6 +243,7 @@ class UserServiceTest {
 
         // Assert
         verify(userRepository).save(user);
+        verify(eventPublisher).publishEvent(new UserInvalidationEvent(user.getLogin()));
     }
 
     // Teste para findUserByLogin - Não encontrado
@@ -232,4 +256,18 @@ class UserServiceTest {
         assertThrows(UserNotFoundException.class, 
             () -> userService.findUserByLogin("invalid@example.com"));
     }
+
+    @Test
+    void findUserByLogin_IsCachedUntilInvalidated() {
+        when(userRepository.findByLogin(user.getLogin())).thenReturn(Optional.of(user));
+
+        User first = userService.findUserByLogin(user.getLogin());
+        User second = userService.findUserByLogin(user.getLogin());
+        principalCache.onUserInvalidation(new UserInvalidationEvent(user.getLogin()));
+        userService.findUserByLogin(user.getLogin());
+
+        verify(userRepository, times(2)).findByLogin(user.getLogin());
+        assertEquals(user.getId(), second.getId());
+        assertNotSame(first, second);
+    }
 }